@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * This is the FcnsTreeNode class.
  * 
@@ -21,6 +23,21 @@ public class FcnsTreeNode<E> {
 	 */
 	private FcnsTreeNode<E> nextSibling;
 
+	/**
+	 * Private variable for the node whose first child or next sibling this node
+	 * is, used to clear cached sizes above a changed node.
+	 * Size caching assumes each node is linked from only one place.
+	 */
+	private FcnsTreeNode<E> linkedFrom;
+
+	/**
+	 * Private variable for the cached number of nodes reachable from this node
+	 * through first children and next siblings, itself included.
+	 * 0 means not yet computed. If a node has a cached span then so does every
+	 * node below it, so clearing can stop at the first node without one.
+	 */
+	private int span;
+
 	/**
 	 * Method for initialzing the Fcns tree node.
 	 * 
@@ -47,8 +64,14 @@ public class FcnsTreeNode<E> {
 	 * @param node for input.
 	 */
 	public void setChild(FcnsTreeNode<E> node) {
+		if (this.firstChild != null && this.firstChild.linkedFrom == this) {
+			this.firstChild.linkedFrom = null;
+		}
 		this.firstChild = node;
-
+		if (node != null) {
+			node.linkedFrom = this;
+		}
+		invalidateSpan();
 	}
 
 	/**
@@ -57,7 +80,26 @@ public class FcnsTreeNode<E> {
 	 * @param node for input.
 	 */
 	public void setSibling(FcnsTreeNode<E> node) {
+		if (this.nextSibling != null && this.nextSibling.linkedFrom == this) {
+			this.nextSibling.linkedFrom = null;
+		}
 		this.nextSibling = node;
+		if (node != null) {
+			node.linkedFrom = this;
+		}
+		invalidateSpan();
+	}
+
+	/**
+	 * Private method that clears the cached span of this node and the nodes
+	 * above it.
+	 */
+	private void invalidateSpan() {
+		FcnsTreeNode<E> node = this;
+		while (node != null && node.span != 0) {
+			node.span = 0;
+			node = node.linkedFrom;
+		}
 	}
 
 	/**
@@ -95,23 +137,28 @@ public class FcnsTreeNode<E> {
 	 * @return true or false for output.
 	 */
 	public boolean equals(FcnsTreeNode<E> another) {
-		if (another == null)
-			return false;
-
-		if (!this.value.equals(another.getValue()))
-			return false;
+		NodeStack<FcnsTreeNode<E>> stack = new NodeStack<>();
+		stack.push(this);
+		stack.push(another);
+
+		while (!stack.isEmpty()) {
+			FcnsTreeNode<E> other = stack.pop();
+			FcnsTreeNode<E> mine = stack.pop();
+
+			if (mine == null || other == null) {
+				if (mine != other)
+					return false;
+				continue;
+			}
 
-		if (this.firstChild == null) {
-			if (another.firstChild != null)
+			if (!mine.value.equals(other.getValue()))
 				return false;
-		} else if (!this.firstChild.equals(another.getChild()))
-			return false;
 
-		if (this.nextSibling == null) {
-			if (another.nextSibling != null)
-				return false;
-		} else if (!this.nextSibling.equals(another.getSibling()))
-			return false;
+			stack.push(mine.nextSibling);
+			stack.push(other.nextSibling);
+			stack.push(mine.firstChild);
+			stack.push(other.firstChild);
+		}
 
 		return true;
 
@@ -124,19 +171,86 @@ public class FcnsTreeNode<E> {
 	 */
 	public int size() {
 
-		int numOfNodes = 1;
+		if (firstChild == null) {
 
-		FcnsTreeNode<E> childFcns = firstChild;
+			return (1);
 
-		while (childFcns != null) {
+		}
+
+		return (1 + firstChild.span());
+	}
 
-			numOfNodes = numOfNodes + childFcns.size();
+	/**
+	 * Private method that reports the number of nodes reachable from this node
+	 * through first children and next siblings, itself included.
+	 * Missing spans are filled in bottom up with an explicit stack and cached.
+	 * 
+	 * @return span for output.
+	 */
+	private int span() {
 
-			childFcns = childFcns.nextSibling;
+		if (this.span != 0) {
+
+			return (this.span);
 
 		}
 
-		return (numOfNodes);
+		NodeStack<FcnsTreeNode<E>> stack = new NodeStack<>();
+
+		FcnsTreeNode<E> node = this;
+
+		FcnsTreeNode<E> last = null;
+
+		while (node != null || !stack.isEmpty()) {
+
+			if (node != null && node.span == 0) {
+
+				stack.push(node);
+
+				node = node.firstChild;
+
+				continue;
+
+			}
+
+			FcnsTreeNode<E> top = stack.peek();
+
+			FcnsTreeNode<E> sibling = top.nextSibling;
+
+			if (sibling != null && sibling.span == 0 && last != sibling) {
+
+				node = sibling;
+
+			}
+
+			else {
+
+				int total = 1;
+
+				if (top.firstChild != null) {
+
+					total += top.firstChild.span;
+
+				}
+
+				if (top.nextSibling != null) {
+
+					total += top.nextSibling.span;
+
+				}
+
+				top.span = total;
+
+				last = stack.pop();
+
+				node = null;
+
+			}
+
+		}
+
+		return (this.span);
+
 	}
 
 	/**
@@ -175,7 +289,20 @@ public class FcnsTreeNode<E> {
 	 */
 	public String toStringLevelOrder() {
 
-		Queue<FcnsTreeNode<E>> queue = new Queue<>();
+		return (toStringLevelOrder(new ThreeTenQueue<>()));
+
+	}
+
+	/**
+	 * Method that does the same as before method but uses the queue given so
+	 * callers can reuse one preallocated queue. The queue is cleared first.
+	 * 
+	 * @param queue for input.
+	 * @return string for output.
+	 */
+	public String toStringLevelOrder(ThreeTenQueue<FcnsTreeNode<E>> queue) {
+
+		queue.clear();
 
 		queue.enqueue(this);
 
@@ -183,19 +310,13 @@ public class FcnsTreeNode<E> {
 
 		while (queue.isEmpty() == false) {
 
-			if (sb.toString().isEmpty() == false) {
+			if (sb.length() > 0) {
 
 				sb.append(" ");
 			}
 
 			FcnsTreeNode<E> fcnsNode = queue.dequeue();
 
-			if (fcnsNode == null) {
-
-				break;
-
-			}
-
 			if (fcnsNode.firstChild != null) {
 
 				queue.enqueue(fcnsNode.firstChild);
@@ -225,37 +346,49 @@ public class FcnsTreeNode<E> {
 
 		StringBuilder sb = new StringBuilder();
 
-		toStringPostOrder(this, sb);
+		NodeStack<FcnsTreeNode<E>> stack = new NodeStack<>();
 
-		return sb.toString();
+		FcnsTreeNode<E> fcnsNode = this;
 
-	}
+		FcnsTreeNode<E> last = null;
 
-	/**
-	 * Private method that helps with post order toString method.
-	 * 
-	 * @param fcnsNode for input.
-	 * @param sb       for input.
-	 */
-	private void toStringPostOrder(FcnsTreeNode<E> fcnsNode, StringBuilder sb) {
+		while (fcnsNode != null || !stack.isEmpty()) {
 
-		if (fcnsNode == null) {
+			if (fcnsNode != null) {
 
-			return;
+				stack.push(fcnsNode);
 
-		}
+				fcnsNode = fcnsNode.firstChild;
+
+				continue;
 
-		toStringPostOrder(fcnsNode.firstChild, sb);
+			}
+
+			FcnsTreeNode<E> top = stack.peek();
+
+			if (top.nextSibling != null && last != top.nextSibling) {
 
-		toStringPostOrder(fcnsNode.nextSibling, sb);
+				fcnsNode = top.nextSibling;
+
+			}
 
-		if (sb.toString().isEmpty() == false) {
+			else {
 
-			sb.append(" ");
+				if (sb.length() > 0) {
+
+					sb.append(" ");
+
+				}
+
+				sb.append(top.value);
+
+				last = stack.pop();
+
+			}
 
 		}
 
-		sb.append(fcnsNode.value);
+		return sb.toString();
 
 	}
 
@@ -268,43 +401,38 @@ public class FcnsTreeNode<E> {
 
 		StringBuilder sb = new StringBuilder();
 
-		toStringKTreePreOrder(this, sb);
+		NodeStack<FcnsTreeNode<E>> stack = new NodeStack<>();
 
-		return sb.toString();
-	}
+		stack.push(this);
 
-	/**
-	 * Private method that helps with pre order toString method.
-	 * 
-	 * @param fcnsNode for input.
-	 * @param sb       for input.
-	 */
-	private void toStringKTreePreOrder(FcnsTreeNode<E> fcnsNode, StringBuilder sb) {
+		while (!stack.isEmpty()) {
 
-		if (fcnsNode == null) {
+			FcnsTreeNode<E> fcnsNode = stack.pop();
 
-			return;
+			if (sb.length() > 0) {
 
-		}
+				sb.append(" ");
 
-		if (sb.toString().isEmpty() == false) {
+			}
 
-			sb.append(" ");
+			sb.append(fcnsNode.value);
 
-		}
+			// this node's own siblings are not part of its k-ary subtree
+			if (fcnsNode != this && fcnsNode.nextSibling != null) {
 
-		sb.append(fcnsNode.value);
+				stack.push(fcnsNode.nextSibling);
 
-		FcnsTreeNode<E> currentNode = fcnsNode.firstChild;
+			}
 
-		while (currentNode != null) {
+			if (fcnsNode.firstChild != null) {
 
-			toStringKTreePreOrder(currentNode, sb);
+				stack.push(fcnsNode.firstChild);
 
-			currentNode = currentNode.nextSibling;
+			}
 
 		}
 
+		return sb.toString();
 	}
 
 	/**
@@ -316,43 +444,35 @@ public class FcnsTreeNode<E> {
 
 		StringBuilder sb = new StringBuilder();
 
-		toStringKTreePostOrder(this, sb);
+		NodeStack<FcnsTreeNode<E>> stack = new NodeStack<>();
 
-		return (sb.toString());
+		FcnsTreeNode<E> fcnsNode = this;
 
-	}
+		while (fcnsNode != null || !stack.isEmpty()) {
 
-	/**
-	 * Private method that helps with post order toString method.
-	 * 
-	 * @param fcnsNode for input.
-	 * @param sb       for input.
-	 */
-	private void toStringKTreePostOrder(FcnsTreeNode<E> fcnsNode, StringBuilder sb) {
+			while (fcnsNode != null) {
 
-		if (fcnsNode == null) {
+				stack.push(fcnsNode);
 
-			return;
-
-		}
+				fcnsNode = fcnsNode.firstChild;
 
-		FcnsTreeNode<E> currentNode = fcnsNode.firstChild;
+			}
 
-		while (currentNode != null) {
+			FcnsTreeNode<E> top = stack.pop();
 
-			toStringKTreePostOrder(currentNode, sb);
+			if (sb.length() > 0) {
 
-			currentNode = currentNode.nextSibling;
+				sb.append(" ");
 
-		}
+			}
 
-		if (sb.toString().isEmpty() == false) {
+			sb.append(top.value);
 
-			sb.append(" ");
+			fcnsNode = (top == this) ? null : top.nextSibling;
 
 		}
 
-		sb.append(fcnsNode.value);
+		return (sb.toString());
 
 	}
 
@@ -363,7 +483,20 @@ public class FcnsTreeNode<E> {
 	 */
 	public String toStringKTreeLevelOrder() {
 
-		Queue<FcnsTreeNode<E>> queue = new Queue<>();
+		return (toStringKTreeLevelOrder(new ThreeTenQueue<>()));
+
+	}
+
+	/**
+	 * Method that does the same as before method but uses the queue given so
+	 * callers can reuse one preallocated queue. The queue is cleared first.
+	 * 
+	 * @param queue for input.
+	 * @return string for output.
+	 */
+	public String toStringKTreeLevelOrder(ThreeTenQueue<FcnsTreeNode<E>> queue) {
+
+		queue.clear();
 
 		queue.enqueue(this);
 
@@ -371,7 +504,7 @@ public class FcnsTreeNode<E> {
 
 		while (queue.isEmpty() == false) {
 
-			if (sb.toString().isEmpty() == false) {
+			if (sb.length() > 0) {
 
 				sb.append(" ");
 
@@ -379,12 +512,6 @@ public class FcnsTreeNode<E> {
 
 			FcnsTreeNode<E> fcnsNode = queue.dequeue();
 
-			if (fcnsNode == null) {
-
-				break;
-
-			}
-
 			sb.append(fcnsNode.value);
 
 			FcnsTreeNode<E> currentNode = fcnsNode.firstChild;
@@ -438,101 +565,72 @@ public class FcnsTreeNode<E> {
 			System.out.println("Yay3");
 		}
 
+		ThreeTenQueue<FcnsTreeNode<String>> queue = new ThreeTenQueue<>(64);
+
+		if (node1.toStringLevelOrder(queue).equals("A B F C G D") &&
+				node1.toStringKTreeLevelOrder(queue).equals("A B C D F G") && queue.capacity() == 64) {
+			System.out.println("Yay4");
+		}
+
 	}
 
 	/**
-	 * Private class for Queue.
+	 * Private class for an array-backed stack used by the iterative traversals.
 	 * 
 	 * @param <T> for use of generics.
 	 */
-	private class Queue<T> {
+	private static class NodeStack<T> {
 
 		/**
-		 * Private variable for the front.
+		 * Private variable for the stack items.
 		 */
-		private Node<T> front;
+		private Object[] items = new Object[16];
 
 		/**
-		 * Private variable for the back.
+		 * Private variable for the number of items.
 		 */
-		private Node<T> back;
+		private int count;
 
 		/**
-		 * Private class for Node.
+		 * Method for checking if the stack is empty.
 		 * 
-		 * @param <T> for use of generics.
-		 */
-		private class Node<T> {
-
-			/**
-			 * Private variable for value.
-			 */
-			private T value;
-
-			/**
-			 * Private variable for next.
-			 */
-			private Node<T> next;
-
-			/**
-			 * Method to initialize Node.
-			 * 
-			 * @param x for input.
-			 */
-			public Node(T x) {
-				value = x;
-				next = null;
-			}
-		}
-
-		/**
-		 * Empty constructor for Queue.
+		 * @return true or false for output.
 		 */
-		public Queue() {
-
+		public boolean isEmpty() {
+			return count == 0;
 		}
 
 		/**
-		 * Method for checking if front is empty.
+		 * Method for push, doubling the array when it is full.
 		 * 
-		 * @return true or false for output.
+		 * @param x for input.
 		 */
-		public boolean isEmpty() {
-
-			return front == null;
-
+		public void push(T x) {
+			if (count == items.length) {
+				items = Arrays.copyOf(items, count * 2);
+			}
+			items[count++] = x;
 		}
 
 		/**
-		 * Method for enqueue.
+		 * Method for looking at the top item.
 		 * 
-		 * @param x for input.
+		 * @return top item for output.
 		 */
-		public void enqueue(T x) {
-			Node<T> node = new Node<>(x);
-			if (back == null) {
-				front = node;
-				back = node;
-			} else {
-				back.next = node;
-				back = node;
-			}
+		@SuppressWarnings("unchecked")
+		public T peek() {
+			return (T) items[count - 1];
 		}
 
 		/**
-		 * Method for dequeue.
+		 * Method for pop.
 		 * 
-		 * @return result or null for output.
+		 * @return top item for output.
 		 */
-		public T dequeue() {
-			if (front == null) {
-				return null;
-			}
-			T result = front.value;
-			front = front.next;
-			if (front == null) {
-				back = null;
-			}
+		@SuppressWarnings("unchecked")
+		public T pop() {
+			T result = (T) items[--count];
+			items[count] = null;
 			return result;
 		}
 
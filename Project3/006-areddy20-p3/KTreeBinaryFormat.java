@@ -0,0 +1,623 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * This is the KTreeBinaryFormat class.
+ * It writes and reads compact binary images of ThreeTenKTree and
+ * FcnsTreeNode trees. Values are stored as their toString() in UTF-8, so
+ * trees always read back with String values.
+ * 
+ * <p>
+ * K-ary tree layout: magic, version, branch k, height, then one block per
+ * level. A level block is an occupancy bitmap with one bit per child slot of
+ * the nodes on the level above (one bit for the root on level 0), followed by
+ * the values of the nodes that bit says are present, in index order. Each
+ * value is a variable-length byte count followed by UTF-8 bytes.
+ * 
+ * <p>
+ * FCNS layout: magic, version, node count, a LOUDS bit sequence, then the
+ * values in k-ary level order. In the LOUDS sequence each node, in level
+ * order, writes one 1 per child followed by a 0. The root's own siblings are
+ * not part of its k-ary tree and are not written.
+ * 
+ * @author Aditi Reddy.
+ */
+public class KTreeBinaryFormat {
+
+	/**
+	 * Magic number at the start of a k-ary tree image ("KTRE").
+	 */
+	public static final int KTREE_MAGIC = 0x4B545245;
+
+	/**
+	 * Magic number at the start of a FCNS tree image ("FCNS").
+	 */
+	public static final int FCNS_MAGIC = 0x46434E53;
+
+	/**
+	 * Version of the layouts written by this class.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Private constructor, this class only has static methods.
+	 */
+	private KTreeBinaryFormat() {
+
+	}
+
+	/**
+	 * Method that writes a k-ary tree image to out.
+	 * The stream is flushed but not closed.
+	 * 
+	 * @param tree for input.
+	 * @param out  for input.
+	 * @throws IOException if writing fails.
+	 */
+	public static void writeKTree(ThreeTenKTree<?> tree, OutputStream out) throws IOException {
+
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+		int k = tree.getBranch();
+
+		data.writeInt(KTREE_MAGIC);
+
+		data.writeByte(VERSION);
+
+		data.writeInt(k);
+
+		// a tree emptied by remove can keep height 0 with no root, so write it as
+		// having no levels at all
+		int height = (tree.size() == 0 || tree.get(0) == null) ? -1 : tree.height();
+
+		data.writeInt(height);
+
+		if (height >= 0) {
+
+			int[] parents = new int[] { 0 };
+
+			int numParents = 1;
+
+			// level 0 has a single slot
+			data.writeByte(1);
+
+			writeValue(data, tree.get(0));
+
+			for (int level = 1; level <= height; level++) {
+
+				byte[] bitmap = new byte[(int) (((long) numParents * k + 7) / 8)];
+
+				int[] children = new int[16];
+
+				int numChildren = 0;
+
+				int bit = 0;
+
+				for (int p = 0; p < numParents; p++) {
+
+					long first = (long) parents[p] * k + 1;
+
+					for (int j = 0; j < k; j++, bit++) {
+
+						long child = first + j;
+
+						if (child < tree.capacity() && tree.get((int) child) != null) {
+
+							bitmap[bit >>> 3] |= (byte) (1 << (bit & 7));
+
+							if (numChildren == children.length) {
+
+								children = Arrays.copyOf(children, numChildren * 2);
+
+							}
+
+							children[numChildren++] = (int) child;
+
+						}
+
+					}
+
+				}
+
+				data.write(bitmap);
+
+				for (int c = 0; c < numChildren; c++) {
+
+					writeValue(data, tree.get(children[c]));
+
+				}
+
+				parents = children;
+
+				numParents = numChildren;
+
+			}
+
+		}
+
+		data.flush();
+
+	}
+
+	/**
+	 * Method that reads a k-ary tree image written by writeKTree.
+	 * 
+	 * @param in for input.
+	 * @return tree for output.
+	 * @throws IOException if reading fails or the image is malformed.
+	 */
+	public static ThreeTenKTree<String> readKTree(InputStream in) throws IOException {
+
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+		if (data.readInt() != KTREE_MAGIC || data.readUnsignedByte() != VERSION) {
+
+			throw new IOException("not a k-ary tree image");
+
+		}
+
+		int k = data.readInt();
+
+		int height = data.readInt();
+
+		if (k < 1 || height < -1) {
+
+			throw new IOException("bad k-ary tree header");
+
+		}
+
+		ThreeTenKTree<String> tree = new ThreeTenKTree<>(1, k);
+
+		if (height < 0) {
+
+			return (tree);
+
+		}
+
+		if (data.readUnsignedByte() != 1) {
+
+			throw new IOException("missing root");
+
+		}
+
+		tree.set(0, readValue(data));
+
+		int[] parents = new int[] { 0 };
+
+		int numParents = 1;
+
+		for (int level = 1; level <= height; level++) {
+
+			byte[] bitmap = new byte[(int) (((long) numParents * k + 7) / 8)];
+
+			data.readFully(bitmap);
+
+			int[] children = new int[16];
+
+			int numChildren = 0;
+
+			int bit = 0;
+
+			for (int p = 0; p < numParents; p++) {
+
+				long first = (long) parents[p] * k + 1;
+
+				for (int j = 0; j < k; j++, bit++) {
+
+					if ((bitmap[bit >>> 3] & (1 << (bit & 7))) != 0) {
+
+						if (numChildren == children.length) {
+
+							children = Arrays.copyOf(children, numChildren * 2);
+
+						}
+
+						children[numChildren++] = (int) (first + j);
+
+					}
+
+				}
+
+			}
+
+			for (int c = 0; c < numChildren; c++) {
+
+				if (!tree.set(children[c], readValue(data))) {
+
+					throw new IOException("duplicate value at index " + children[c]);
+
+				}
+
+			}
+
+			parents = children;
+
+			numParents = numChildren;
+
+		}
+
+		return (tree);
+
+	}
+
+	/**
+	 * Method that writes a FCNS tree image to out.
+	 * The stream is flushed but not closed.
+	 * 
+	 * @param root for input.
+	 * @param out  for input.
+	 * @throws IOException if writing fails.
+	 */
+	public static void writeFcns(FcnsTreeNode<?> root, OutputStream out) throws IOException {
+
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+
+		data.writeInt(FCNS_MAGIC);
+
+		data.writeByte(VERSION);
+
+		if (root == null) {
+
+			data.writeInt(0);
+
+			data.flush();
+
+			return;
+
+		}
+
+		// first pass: level order, LOUDS bits
+		ThreeTenQueue<FcnsTreeNode<?>> queue = new ThreeTenQueue<>();
+
+		BitWriter bits = new BitWriter();
+
+		int count = 0;
+
+		queue.enqueue(root);
+
+		while (!queue.isEmpty()) {
+
+			FcnsTreeNode<?> node = queue.dequeue();
+
+			count++;
+
+			for (FcnsTreeNode<?> child = node.getChild(); child != null; child = child.getSibling()) {
+
+				bits.add(true);
+
+				queue.enqueue(child);
+
+			}
+
+			bits.add(false);
+
+		}
+
+		data.writeInt(count);
+
+		data.write(bits.bytes, 0, bits.byteLength());
+
+		// second pass: values in the same order
+		queue.enqueue(root);
+
+		while (!queue.isEmpty()) {
+
+			FcnsTreeNode<?> node = queue.dequeue();
+
+			writeValue(data, node.getValue());
+
+			for (FcnsTreeNode<?> child = node.getChild(); child != null; child = child.getSibling()) {
+
+				queue.enqueue(child);
+
+			}
+
+		}
+
+		data.flush();
+
+	}
+
+	/**
+	 * Method that reads a FCNS tree image written by writeFcns.
+	 * 
+	 * @param in for input.
+	 * @return root node, or null for an empty image, for output.
+	 * @throws IOException if reading fails or the image is malformed.
+	 */
+	public static FcnsTreeNode<String> readFcns(InputStream in) throws IOException {
+
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+
+		if (data.readInt() != FCNS_MAGIC || data.readUnsignedByte() != VERSION) {
+
+			throw new IOException("not a FCNS tree image");
+
+		}
+
+		int count = data.readInt();
+
+		if (count == 0) {
+
+			return (null);
+
+		}
+
+		// n nodes write n zeros and n - 1 ones
+		long numBits = 2L * count - 1;
+
+		byte[] bits = new byte[(int) ((numBits + 7) / 8)];
+
+		data.readFully(bits);
+
+		// degree of each node in level order, read off the unary runs
+		int[] degrees = new int[count];
+
+		int node = 0;
+
+		for (long b = 0; b < numBits && node < count; b++) {
+
+			if ((bits[(int) (b >>> 3)] & (1 << (b & 7))) != 0) {
+
+				degrees[node]++;
+
+			}
+
+			else {
+
+				node++;
+
+			}
+
+		}
+
+		@SuppressWarnings("unchecked")
+		FcnsTreeNode<String>[] nodes = (FcnsTreeNode<String>[]) new FcnsTreeNode<?>[count];
+
+		for (int i = 0; i < count; i++) {
+
+			nodes[i] = new FcnsTreeNode<>(readValue(data));
+
+		}
+
+		int next = 1;
+
+		for (int i = 0; i < count; i++) {
+
+			FcnsTreeNode<String> last = null;
+
+			for (int d = 0; d < degrees[i]; d++) {
+
+				if (next >= count) {
+
+					throw new IOException("LOUDS bits do not match node count");
+
+				}
+
+				if (last == null) {
+
+					nodes[i].setChild(nodes[next]);
+
+				}
+
+				else {
+
+					last.setSibling(nodes[next]);
+
+				}
+
+				last = nodes[next++];
+
+			}
+
+		}
+
+		return (nodes[0]);
+
+	}
+
+	/**
+	 * Private method that writes one value as a varint byte count and UTF-8.
+	 * 
+	 * @param data  for input.
+	 * @param value for input.
+	 * @throws IOException if writing fails.
+	 */
+	private static void writeValue(DataOutputStream data, Object value) throws IOException {
+
+		byte[] utf8 = value.toString().getBytes(StandardCharsets.UTF_8);
+
+		writeVarInt(data, utf8.length);
+
+		data.write(utf8);
+
+	}
+
+	/**
+	 * Private method that reads one value written by writeValue.
+	 * 
+	 * @param data for input.
+	 * @return value for output.
+	 * @throws IOException if reading fails.
+	 */
+	private static String readValue(DataInputStream data) throws IOException {
+
+		byte[] utf8 = new byte[readVarInt(data)];
+
+		data.readFully(utf8);
+
+		return (new String(utf8, StandardCharsets.UTF_8));
+
+	}
+
+	/**
+	 * Method that writes a non-negative int using 7 bits per byte, low bits
+	 * first, with the high bit set on every byte but the last.
+	 * 
+	 * @param out   for input.
+	 * @param value for input.
+	 * @throws IOException if writing fails.
+	 */
+	static void writeVarInt(DataOutputStream out, int value) throws IOException {
+
+		while ((value & ~0x7F) != 0) {
+
+			out.writeByte((value & 0x7F) | 0x80);
+
+			value >>>= 7;
+
+		}
+
+		out.writeByte(value);
+
+	}
+
+	/**
+	 * Method that reads an int written by writeVarInt.
+	 * 
+	 * @param in for input.
+	 * @return value for output.
+	 * @throws IOException if reading fails or the varint is too long.
+	 */
+	static int readVarInt(DataInputStream in) throws IOException {
+
+		int value = 0;
+
+		for (int shift = 0; shift < 35; shift += 7) {
+
+			int b = in.read();
+
+			if (b < 0) {
+
+				throw new EOFException();
+
+			}
+
+			value |= (b & 0x7F) << shift;
+
+			if ((b & 0x80) == 0) {
+
+				return (value);
+
+			}
+
+		}
+
+		throw new IOException("varint too long");
+
+	}
+
+	/**
+	 * Private class for appending bits to a growable byte array, low bit of
+	 * each byte first.
+	 */
+	private static class BitWriter {
+
+		/**
+		 * Private variable for the packed bits.
+		 */
+		private byte[] bytes = new byte[16];
+
+		/**
+		 * Private variable for the number of bits written.
+		 */
+		private long numBits;
+
+		/**
+		 * Method that appends one bit.
+		 * 
+		 * @param bit for input.
+		 */
+		void add(boolean bit) {
+
+			int index = (int) (numBits >>> 3);
+
+			if (index == bytes.length) {
+
+				bytes = Arrays.copyOf(bytes, bytes.length * 2);
+
+			}
+
+			if (bit) {
+
+				bytes[index] |= (byte) (1 << (numBits & 7));
+
+			}
+
+			numBits++;
+
+		}
+
+		/**
+		 * Method that reports how many bytes hold the bits.
+		 * 
+		 * @return byte length for output.
+		 */
+		int byteLength() {
+
+			return ((int) ((numBits + 7) / 8));
+
+		}
+
+	}
+
+	/**
+	 * Main method for testing.
+	 * 
+	 * @param args for input.
+	 * @throws IOException if a round trip fails.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		ThreeTenKTree<String> tree = ThreeTenKTree.fromLevelOrder(3,
+				Arrays.asList("A", "B", null, "D", "E", null, "\u00e9t\u00e9", null, null, null, "G").iterator());
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		writeKTree(tree, bytes);
+		ThreeTenKTree<String> copy = readKTree(new ByteArrayInputStream(bytes.toByteArray()));
+
+		if (copy.toString().equals(tree.toString()) && copy.size() == tree.size() && copy.height() == 2
+				&& copy.getBranch() == 3) {
+			System.out.println("Yay1");
+		}
+
+		FcnsTreeNode<String> fcns = ThreeTenKTree.createFcnsTree(tree);
+		bytes.reset();
+		writeFcns(fcns, bytes);
+		FcnsTreeNode<String> fcnsCopy = readFcns(new ByteArrayInputStream(bytes.toByteArray()));
+
+		if (fcnsCopy.equals(fcns) && fcnsCopy.toStringKTreeLevelOrder().equals("A B D E \u00e9t\u00e9 G")) {
+			System.out.println("Yay2");
+		}
+
+		bytes.reset();
+		writeKTree(new ThreeTenKTree<String>(1, 2), bytes);
+
+		if (readKTree(new ByteArrayInputStream(bytes.toByteArray())).size() == 0) {
+			System.out.println("Yay3");
+		}
+
+		ThreeTenKTree<String> emptied = new ThreeTenKTree<>(1, 2);
+		emptied.set(0, "root");
+		emptied.remove("root");
+		bytes.reset();
+		writeKTree(emptied, bytes);
+		ThreeTenKTree<String> emptiedCopy = readKTree(new ByteArrayInputStream(bytes.toByteArray()));
+
+		if (emptied.size() == 0 && emptiedCopy.size() == 0 && emptiedCopy.height() == -1) {
+			System.out.println("Yay4");
+		}
+
+	}
+
+}
@@ -1,4 +1,5 @@
 import java.util.Scanner;
+import java.util.Iterator;
 import java.io.File;
 import java.io.IOException;
 
@@ -118,16 +119,20 @@ public class KTreeUI {
 		}
 		
 		int k = Integer.parseInt(s.next());
-		ThreeTenKTree<String> tree = new ThreeTenKTree<>(1, k); //start with one item
+		final Scanner tokens = s;
 		
-		for(int i = 0; s.hasNext(); i++) {
-			String val = s.next();
-			if (val.equals("_")) //null nodes should be default array item
-				continue;
-			tree.set(i, val); //expand storage as needed
-		}
-		
-		return tree;
+		//read the level-order tokens in one pass
+		return ThreeTenKTree.fromLevelOrder(k, new Iterator<String>() {
+			public boolean hasNext() {
+				return tokens.hasNext();
+			}
+			public String next() {
+				String val = tokens.next();
+				if (val.equals("_")) //null nodes should be default array item
+					return null;
+				return val;
+			}
+		});
 	}
 
 	/**
@@ -0,0 +1,764 @@
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+
+/**
+ * This is the MappedKTree class.
+ * It answers read-only ThreeTenKTree queries straight from a memory-mapped
+ * file, so opening a tree does not build an Object[] storage array and
+ * several JVMs can share one page-cache copy of the file.
+ * 
+ * <p>
+ * File layout, all big-endian:
+ * <ul>
+ * <li>header: magic, version, k, height, capacity, node count, hash slots,
+ * padding (8 ints)</li>
+ * <li>indices: the tree index of every node, ascending (node count ints)</li>
+ * <li>padding to 8 bytes</li>
+ * <li>offsets: where each node's value starts in the string heap, plus one
+ * end offset (node count + 1 longs)</li>
+ * <li>hash index: node number + 1 at the slot picked by the value's
+ * hashCode with linear probing, 0 for empty (hash slots ints)</li>
+ * <li>string heap: the values as UTF-8</li>
+ * </ul>
+ * A single mapping is used, so files are limited to 2 GB.
+ * 
+ * @author Aditi Reddy.
+ */
+public class MappedKTree implements Closeable {
+
+	/**
+	 * Magic number at the start of a mapped tree file ("KTRM").
+	 */
+	public static final int MAGIC = 0x4B54524D;
+
+	/**
+	 * Version of the layout written by this class.
+	 */
+	public static final int VERSION = 1;
+
+	/**
+	 * Size of the header in bytes.
+	 */
+	private static final int HEADER_BYTES = 32;
+
+	/**
+	 * Private variable for the mapped file.
+	 */
+	private final MappedByteBuffer buffer;
+
+	/**
+	 * Private variable for the open file, kept until close().
+	 */
+	private final RandomAccessFile file;
+
+	/**
+	 * Private variable for the branch factor.
+	 */
+	private final int branchK;
+
+	/**
+	 * Private variable for the height of the tree.
+	 */
+	private final int treeHeight;
+
+	/**
+	 * Private variable for the capacity of the tree.
+	 */
+	private final int treeCapacity;
+
+	/**
+	 * Private variable for the number of nodes.
+	 */
+	private final int count;
+
+	/**
+	 * Private variable for the number of hash index slots.
+	 */
+	private final int hashSlots;
+
+	/**
+	 * Private variable for where the offsets section starts.
+	 */
+	private final int offsetsStart;
+
+	/**
+	 * Private variable for where the hash index starts.
+	 */
+	private final int hashStart;
+
+	/**
+	 * Private variable for where the string heap starts.
+	 */
+	private final long heapStart;
+
+	/**
+	 * Private constructor that maps an open file.
+	 * 
+	 * @param file for input.
+	 * @throws IOException if the file cannot be mapped or is malformed.
+	 */
+	private MappedKTree(RandomAccessFile file) throws IOException {
+
+		this.file = file;
+
+		FileChannel channel = file.getChannel();
+
+		if (channel.size() > Integer.MAX_VALUE) {
+
+			throw new IOException("mapped tree files are limited to 2 GB");
+
+		}
+
+		this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+		if (buffer.limit() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+
+			throw new IOException("not a mapped tree file");
+
+		}
+
+		this.branchK = buffer.getInt(8);
+
+		this.treeHeight = buffer.getInt(12);
+
+		this.treeCapacity = buffer.getInt(16);
+
+		this.count = buffer.getInt(20);
+
+		this.hashSlots = buffer.getInt(24);
+
+		this.offsetsStart = align8(HEADER_BYTES + 4L * count);
+
+		this.hashStart = (int) (offsetsStart + 8L * (count + 1));
+
+		this.heapStart = hashStart + 4L * hashSlots;
+
+		if (heapStart > buffer.limit() || heapStart + buffer.getLong(offsetsStart + 8 * count) > buffer.limit()) {
+
+			throw new IOException("mapped tree file is truncated");
+
+		}
+
+	}
+
+	/**
+	 * Static method that opens a mapped tree file for reading.
+	 * 
+	 * @param path for input.
+	 * @return tree for output.
+	 * @throws IOException if the file cannot be opened or is malformed.
+	 */
+	public static MappedKTree open(File path) throws IOException {
+
+		RandomAccessFile raf = new RandomAccessFile(path, "r");
+
+		try {
+
+			return (new MappedKTree(raf));
+
+		} catch (IOException e) {
+
+			raf.close();
+
+			throw e;
+
+		}
+
+	}
+
+	/**
+	 * Static method that writes a tree to a file that open() can map.
+	 * Values are stored as their toString(). Lookups by value need those
+	 * strings to be distinct, so a repeat is reported before the file is
+	 * opened.
+	 * 
+	 * @param tree for input.
+	 * @param path for input.
+	 * @throws IOException if writing fails or a value repeats.
+	 */
+	public static void write(ThreeTenKTree<?> tree, File path) throws IOException {
+
+		int n = tree.size();
+
+		int[] indices = new int[n];
+
+		byte[][] values = new byte[n][];
+
+		int[] hashes = new int[n];
+
+		int pos = 0;
+
+		for (PrimitiveIterator.OfInt it = tree.levelOrderIndices(); it.hasNext();) {
+
+			int index = it.nextInt();
+
+			String value = tree.get(index).toString();
+
+			indices[pos] = index;
+
+			values[pos] = value.getBytes(StandardCharsets.UTF_8);
+
+			hashes[pos] = value.hashCode();
+
+			pos++;
+
+		}
+
+		int slots = Integer.highestOneBit(Math.max(2 * n, 1)) * 2;
+
+		int[] hashIndex = new int[slots];
+
+		for (int i = 0; i < n; i++) {
+
+			int slot = Math.floorMod(hashes[i], slots);
+
+			while (hashIndex[slot] != 0) {
+
+				int other = hashIndex[slot] - 1;
+
+				if (hashes[other] == hashes[i] && Arrays.equals(values[other], values[i])) {
+
+					throw new IOException("value repeats at index " + indices[i] + ": "
+							+ new String(values[i], StandardCharsets.UTF_8));
+
+				}
+
+				slot = (slot + 1) & (slots - 1);
+
+			}
+
+			hashIndex[slot] = i + 1;
+
+		}
+
+		try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(path)))) {
+
+			out.writeInt(MAGIC);
+
+			out.writeInt(VERSION);
+
+			out.writeInt(tree.getBranch());
+
+			out.writeInt(tree.height());
+
+			out.writeInt(tree.capacity());
+
+			out.writeInt(n);
+
+			out.writeInt(slots);
+
+			out.writeInt(0);
+
+			for (int i = 0; i < n; i++) {
+
+				out.writeInt(indices[i]);
+
+			}
+
+			for (long p = HEADER_BYTES + 4L * n; p < align8(HEADER_BYTES + 4L * n); p++) {
+
+				out.writeByte(0);
+
+			}
+
+			long offset = 0;
+
+			for (int i = 0; i < n; i++) {
+
+				out.writeLong(offset);
+
+				offset += values[i].length;
+
+			}
+
+			out.writeLong(offset);
+
+			for (int i = 0; i < slots; i++) {
+
+				out.writeInt(hashIndex[i]);
+
+			}
+
+			for (int i = 0; i < n; i++) {
+
+				out.write(values[i]);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Private static method that rounds up to a multiple of 8.
+	 * 
+	 * @param position for input.
+	 * @return aligned position for output.
+	 */
+	private static int align8(long position) {
+
+		return ((int) ((position + 7) & ~7L));
+
+	}
+
+	/**
+	 * Method that reports the branch factor.
+	 * 
+	 * @return branch factor for output.
+	 */
+	public int getBranch() {
+
+		return (this.branchK);
+
+	}
+
+	/**
+	 * Method that reports the number of nodes in the tree.
+	 * 
+	 * @return size for output.
+	 */
+	public int size() {
+
+		return (this.count);
+
+	}
+
+	/**
+	 * Method that reports the capacity the tree had when written.
+	 * 
+	 * @return capacity for output.
+	 */
+	public int capacity() {
+
+		return (this.treeCapacity);
+
+	}
+
+	/**
+	 * Method that reports the height of the tree.
+	 * 
+	 * @return height for output.
+	 */
+	public int height() {
+
+		return (this.treeHeight);
+
+	}
+
+	/**
+	 * Private method that reads the tree index of a node.
+	 * 
+	 * @param node for input.
+	 * @return index for output.
+	 */
+	private int indexAt(int node) {
+
+		return (buffer.getInt(HEADER_BYTES + 4 * node));
+
+	}
+
+	/**
+	 * Private method that finds the first node whose index is at least index.
+	 * 
+	 * @param index for input.
+	 * @return node number, count if there is none, for output.
+	 */
+	private int lowerBound(long index) {
+
+		int low = 0;
+
+		int high = count;
+
+		while (low < high) {
+
+			int mid = (low + high) >>> 1;
+
+			if (indexAt(mid) < index) {
+
+				low = mid + 1;
+
+			}
+
+			else {
+
+				high = mid;
+
+			}
+
+		}
+
+		return (low);
+
+	}
+
+	/**
+	 * Private method that finds the node stored at index.
+	 * 
+	 * @param index for input.
+	 * @return node number, or -1 if the slot is empty, for output.
+	 */
+	private int nodeAt(int index) {
+
+		int node = lowerBound(index);
+
+		if (node < count && indexAt(node) == index) {
+
+			return (node);
+
+		}
+
+		return (-1);
+
+	}
+
+	/**
+	 * Private method that decodes the value of a node from the string heap.
+	 * 
+	 * @param node for input.
+	 * @return value for output.
+	 */
+	private String valueAt(int node) {
+
+		long start = buffer.getLong(offsetsStart + 8 * node);
+
+		long end = buffer.getLong(offsetsStart + 8 * (node + 1));
+
+		byte[] utf8 = new byte[(int) (end - start)];
+
+		ByteBuffer view = buffer.duplicate();
+
+		view.position((int) (heapStart + start));
+
+		view.get(utf8);
+
+		return (new String(utf8, StandardCharsets.UTF_8));
+
+	}
+
+	/**
+	 * Private method that compares a node's stored bytes to utf8 without
+	 * decoding them.
+	 * 
+	 * @param node for input.
+	 * @param utf8 for input.
+	 * @return true or false for output.
+	 */
+	private boolean valueEquals(int node, byte[] utf8) {
+
+		long start = buffer.getLong(offsetsStart + 8 * node);
+
+		long end = buffer.getLong(offsetsStart + 8 * (node + 1));
+
+		if (end - start != utf8.length) {
+
+			return (false);
+
+		}
+
+		int base = (int) (heapStart + start);
+
+		for (int i = 0; i < utf8.length; i++) {
+
+			if (buffer.get(base + i) != utf8[i]) {
+
+				return (false);
+
+			}
+
+		}
+
+		return (true);
+
+	}
+
+	/**
+	 * Private method that looks value up in the persisted hash index.
+	 * 
+	 * @param value for input.
+	 * @return node number, or -1 if not present, for output.
+	 */
+	private int nodeOf(String value) {
+
+		if (value == null || hashSlots == 0) {
+
+			return (-1);
+
+		}
+
+		byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+
+		int slot = Math.floorMod(value.hashCode(), hashSlots);
+
+		for (;;) {
+
+			int entry = buffer.getInt(hashStart + 4 * slot);
+
+			if (entry == 0) {
+
+				return (-1);
+
+			}
+
+			if (valueEquals(entry - 1, utf8)) {
+
+				return (entry - 1);
+
+			}
+
+			slot = (slot + 1) & (hashSlots - 1);
+
+		}
+
+	}
+
+	/**
+	 * Method that gets value at node index.
+	 * If index is invalid or index has no node, null is returned.
+	 * 
+	 * @param index for input.
+	 * @return value for output.
+	 */
+	public String get(int index) {
+
+		if (index < 0 || index >= treeCapacity) {
+
+			return (null);
+
+		}
+
+		int node = nodeAt(index);
+
+		if (node < 0) {
+
+			return (null);
+
+		}
+
+		return (valueAt(node));
+
+	}
+
+	/**
+	 * Method that reports the index of the node holding value.
+	 * 
+	 * @param value for input.
+	 * @return index, or -1 if value is not present, for output.
+	 */
+	public int indexOf(String value) {
+
+		int node = nodeOf(value);
+
+		if (node < 0) {
+
+			return (-1);
+
+		}
+
+		return (indexAt(node));
+
+	}
+
+	/**
+	 * Method that determines if value is in tree or not.
+	 * 
+	 * @param value for input.
+	 * @return true or false for output.
+	 */
+	public boolean has(String value) {
+
+		return (nodeOf(value) >= 0);
+
+	}
+
+	/**
+	 * Method that determines if value is in a leaf node of tree or not.
+	 * A node's children are one run of the sorted index list, so a single
+	 * binary search answers this.
+	 * 
+	 * @param value for input.
+	 * @return true or false for output.
+	 */
+	public boolean isLeaf(String value) {
+
+		int index = indexOf(value);
+
+		if (index < 0) {
+
+			return (false);
+
+		}
+
+		long first = (long) index * branchK + 1;
+
+		int node = lowerBound(first);
+
+		return (node == count || indexAt(node) > first + branchK - 1);
+
+	}
+
+	/**
+	 * Method that finds node of given value and reports children of that node as a
+	 * string.
+	 * If value is not present, null is returned.
+	 * If node is a leaf, empty string is returned.
+	 * 
+	 * @param value for input.
+	 * @return string or null for output.
+	 */
+	public String getChildren(String value) {
+
+		int index = indexOf(value);
+
+		if (index < 0) {
+
+			return (null);
+
+		}
+
+		long first = (long) index * branchK + 1;
+
+		long last = first + branchK - 1;
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int node = lowerBound(first); node < count && indexAt(node) <= last; node++) {
+
+			if (sb.length() > 0) {
+
+				sb.append(" ");
+
+			}
+
+			sb.append(valueAt(node));
+
+		}
+
+		return (sb.toString());
+
+	}
+
+	/**
+	 * Method that finds node from given value and reports the ancestors of it as a
+	 * string.
+	 * If value is not present, null is returned.
+	 * 
+	 * @param value for input.
+	 * @return string or null for output.
+	 */
+	public String getAncestors(String value) {
+
+		int index = indexOf(value);
+
+		if (index < 0) {
+
+			return (null);
+
+		}
+
+		int depth = 0;
+
+		for (int i = index; i > 0; i = (i - 1) / branchK) {
+
+			depth++;
+
+		}
+
+		int[] path = new int[depth + 1];
+
+		for (int d = depth, i = index; d >= 0; d--, i = (i - 1) / branchK) {
+
+			path[d] = i;
+
+		}
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int d = 0; d <= depth; d++) {
+
+			if (d > 0) {
+
+				sb.append("-->");
+
+			}
+
+			sb.append(get(path[d]));
+
+		}
+
+		return (sb.toString());
+
+	}
+
+	/**
+	 * Method that closes the file. The mapping itself is released when it is
+	 * garbage collected.
+	 * 
+	 * @throws IOException if closing fails.
+	 */
+	@Override
+	public void close() throws IOException {
+
+		file.close();
+
+	}
+
+	/**
+	 * Main method for testing.
+	 * 
+	 * @param args for input.
+	 * @throws IOException if the temporary file cannot be used.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		ThreeTenKTree<String> tree = ThreeTenKTree.fromLevelOrder(3,
+				Arrays.asList("A", "B", null, "D", "E", null, "F", null, null, null, "G").iterator());
+
+		File tmp = File.createTempFile("ktree", ".bin");
+		tmp.deleteOnExit();
+		write(tree, tmp);
+
+		try (MappedKTree mapped = open(tmp)) {
+
+			if (mapped.size() == 6 && mapped.height() == 2 && mapped.capacity() == 13 && mapped.getBranch() == 3
+					&& mapped.get(0).equals("A") && mapped.get(2) == null && mapped.get(10).equals("G")
+					&& mapped.get(99) == null) {
+				System.out.println("Yay1");
+			}
+
+			if (mapped.has("F") && !mapped.has("Z") && mapped.isLeaf("E") && !mapped.isLeaf("B")
+					&& mapped.getChildren("B").equals("E F") && mapped.getChildren("G").equals("")
+					&& mapped.getAncestors("G").equals("A-->D-->G") && mapped.getAncestors("Z") == null) {
+				System.out.println("Yay2");
+			}
+
+		}
+
+		ThreeTenKTree<Object> mixed = new ThreeTenKTree<>(1, 2);
+		mixed.set(0, 1);
+		mixed.set(1, "1");
+		boolean repeated = false;
+
+		try {
+			write(mixed, tmp);
+		} catch (IOException e) {
+			repeated = true;
+		}
+
+		if (repeated) {
+			System.out.println("Yay3");
+		}
+
+	}
+
+}
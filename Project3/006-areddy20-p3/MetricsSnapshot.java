@@ -0,0 +1,247 @@
+/**
+ * This is the MetricsSnapshot class.
+ * It is a fixed copy of ThreeTenHashTableMetrics taken at one moment.
+ * 
+ * @author Aditi Reddy.
+ */
+public class MetricsSnapshot {
+
+	/**
+	 * Private variable for the number of operations of each kind.
+	 */
+	private final long[] opCounts;
+
+	/**
+	 * Private variable for the summed probe lengths of each kind.
+	 */
+	private final long[] probeTotals;
+
+	/**
+	 * Private variable for the longest probe of each kind.
+	 */
+	private final long[] probeMax;
+
+	/**
+	 * Private variable for the probe length histogram of each kind.
+	 */
+	private final long[][] histogram;
+
+	/**
+	 * Private variable for the table capacity.
+	 */
+	private final int capacity;
+
+	/**
+	 * Private variable for the table size.
+	 */
+	private final int size;
+
+	/**
+	 * Private variable for the number of tombstones.
+	 */
+	private final int tombstones;
+
+	/**
+	 * Private variable for the number of rehashes.
+	 */
+	private final long rehashCount;
+
+	/**
+	 * Private variable for the total time spent rehashing.
+	 */
+	private final long rehashNanos;
+
+	/**
+	 * Private variable for the longest single rehash.
+	 */
+	private final long rehashMaxNanos;
+
+	/**
+	 * Method to create a snapshot.
+	 * 
+	 * @param opCounts       for input.
+	 * @param probeTotals    for input.
+	 * @param probeMax       for input.
+	 * @param histogram      for input.
+	 * @param capacity       for input.
+	 * @param size           for input.
+	 * @param tombstones     for input.
+	 * @param rehashCount    for input.
+	 * @param rehashNanos    for input.
+	 * @param rehashMaxNanos for input.
+	 */
+	MetricsSnapshot(long[] opCounts, long[] probeTotals, long[] probeMax, long[][] histogram, int capacity,
+			int size, int tombstones, long rehashCount, long rehashNanos, long rehashMaxNanos) {
+		this.opCounts = opCounts;
+		this.probeTotals = probeTotals;
+		this.probeMax = probeMax;
+		this.histogram = histogram;
+		this.capacity = capacity;
+		this.size = size;
+		this.tombstones = tombstones;
+		this.rehashCount = rehashCount;
+		this.rehashNanos = rehashNanos;
+		this.rehashMaxNanos = rehashMaxNanos;
+	}
+
+	/**
+	 * Method that reports how many operations of a kind were recorded.
+	 * 
+	 * @param op one of the ThreeTenHashTableMetrics OP constants for input.
+	 * @return count for output.
+	 */
+	public long getOperationCount(int op) {
+
+		return (opCounts[op]);
+
+	}
+
+	/**
+	 * Method that reports the average probe length of a kind.
+	 * 
+	 * @param op for input.
+	 * @return average for output.
+	 */
+	public double getAverageProbeLength(int op) {
+		if (opCounts[op] == 0) {
+
+			return (0.0);
+
+		}
+
+		return ((double) probeTotals[op] / opCounts[op]);
+
+	}
+
+	/**
+	 * Method that reports the longest probe of a kind.
+	 * 
+	 * @param op for input.
+	 * @return max probe length for output.
+	 */
+	public long getMaxProbeLength(int op) {
+
+		return (probeMax[op]);
+
+	}
+
+	/**
+	 * Method that reports the probe length histogram of a kind.
+	 * See ThreeTenHashTableMetrics.HISTOGRAM_BUCKETS for the bucket bounds.
+	 * 
+	 * @param op for input.
+	 * @return copy of the histogram for output.
+	 */
+	public long[] getProbeHistogram(int op) {
+
+		return (histogram[op].clone());
+
+	}
+
+	/**
+	 * Method that reports the table capacity.
+	 * 
+	 * @return capacity for output.
+	 */
+	public int getCapacity() {
+
+		return (capacity);
+
+	}
+
+	/**
+	 * Method that reports the table size.
+	 * 
+	 * @return size for output.
+	 */
+	public int getSize() {
+
+		return (size);
+
+	}
+
+	/**
+	 * Method that reports the load factor.
+	 * 
+	 * @return size over capacity for output.
+	 */
+	public double getLoadFactor() {
+
+		return ((double) size / capacity);
+
+	}
+
+	/**
+	 * Method that reports the number of tombstones.
+	 * 
+	 * @return tombstones for output.
+	 */
+	public int getTombstoneCount() {
+
+		return (tombstones);
+
+	}
+
+	/**
+	 * Method that reports the fraction of slots holding a tombstone.
+	 * 
+	 * @return tombstone density for output.
+	 */
+	public double getTombstoneDensity() {
+
+		return ((double) tombstones / capacity);
+
+	}
+
+	/**
+	 * Method that reports how many rehashes happened.
+	 * 
+	 * @return rehash count for output.
+	 */
+	public long getRehashCount() {
+
+		return (rehashCount);
+
+	}
+
+	/**
+	 * Method that reports the total time spent rehashing.
+	 * 
+	 * @return nanoseconds for output.
+	 */
+	public long getTotalRehashNanos() {
+
+		return (rehashNanos);
+
+	}
+
+	/**
+	 * Method that reports the longest single rehash.
+	 * 
+	 * @return nanoseconds for output.
+	 */
+	public long getMaxRehashNanos() {
+
+		return (rehashMaxNanos);
+
+	}
+
+	/**
+	 * Method for toString.
+	 * 
+	 * @return string for output.
+	 */
+	@Override
+	public String toString() {
+		String[] names = { "put", "get", "remove" };
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < names.length; i++) {
+			s.append(names[i] + ": count=" + opCounts[i] + " avgProbe=" + getAverageProbeLength(i)
+					+ " maxProbe=" + probeMax[i] + "\n");
+		}
+		s.append("capacity=" + capacity + " size=" + size + " tombstones=" + tombstones + "\n");
+		s.append("rehashes=" + rehashCount + " rehashNanos=" + rehashNanos + " maxRehashNanos=" + rehashMaxNanos);
+		return (s.toString());
+	}
+
+}
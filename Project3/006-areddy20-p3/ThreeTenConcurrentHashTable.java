@@ -0,0 +1,336 @@
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * This is the ThreeTenConcurrentHashTable class.
+ * It wraps a ThreeTenHashTable so it can be shared between threads.
+ * Reads are optimistic and writes are exclusive.
+ *
+ * @param <K> for use of generics.
+ * @param <V> for use of generics.
+ * @author Aditi Reddy.
+ */
+public class ThreeTenConcurrentHashTable<K, V> {
+
+	/**
+	 * Private variable for the underlying hash table.
+	 */
+	private final ThreeTenHashTable<K, V> table;
+
+	/**
+	 * Private variable for the lock that guards the table.
+	 */
+	private final StampedLock lock;
+
+	/**
+	 * Method to create a concurrent hash table with capacity as initCapacity.
+	 *
+	 * @param initCapacity for input.
+	 */
+	public ThreeTenConcurrentHashTable(int initCapacity) {
+
+		this.table = new ThreeTenHashTable<>(initCapacity);
+
+		this.lock = new StampedLock();
+
+	}
+
+	/**
+	 * Method that creates a concurrent hash table with the default table length.
+	 */
+	public ThreeTenConcurrentHashTable() {
+
+		this.table = new ThreeTenHashTable<>();
+
+		this.lock = new StampedLock();
+
+	}
+
+	/**
+	 * Method that shows how big the storage is.
+	 *
+	 * @return storage length for output.
+	 */
+	public int capacity() {
+
+		long stamp = lock.tryOptimisticRead();
+
+		int cap = table.capacity();
+
+		if (!lock.validate(stamp)) {
+
+			stamp = lock.readLock();
+
+			try {
+
+				cap = table.capacity();
+
+			} finally {
+
+				lock.unlockRead(stamp);
+
+			}
+
+		}
+
+		return (cap);
+
+	}
+
+	/**
+	 * Method that shows the number of elements in the table.
+	 *
+	 * @return number of elements for output.
+	 */
+	public int size() {
+
+		long stamp = lock.tryOptimisticRead();
+
+		int num = table.size();
+
+		if (!lock.validate(stamp)) {
+
+			stamp = lock.readLock();
+
+			try {
+
+				num = table.size();
+
+			} finally {
+
+				lock.unlockRead(stamp);
+
+			}
+
+		}
+
+		return (num);
+
+	}
+
+	/**
+	 * Method for getting the value that the key maps to from table.
+	 * The lookup is first tried without locking. If a writer ran at the same
+	 * time the result is thrown away and the lookup is repeated under the read
+	 * lock.
+	 *
+	 * @param key for input.
+	 * @return value or null for output.
+	 */
+	public V get(K key) {
+
+		if (key == null) {
+
+			return (null);
+
+		}
+
+		long stamp = lock.tryOptimisticRead();
+
+		if (stamp != 0L) {
+
+			V val = null;
+
+			try {
+
+				val = table.get(key);
+
+			} catch (RuntimeException e) {
+
+				// storage was swapped by a rehash mid-probe, retry with the lock
+				stamp = 0L;
+
+			}
+
+			if (stamp != 0L && lock.validate(stamp)) {
+
+				return (val);
+
+			}
+
+		}
+
+		stamp = lock.readLock();
+
+		try {
+
+			return (table.get(key));
+
+		} finally {
+
+			lock.unlockRead(stamp);
+
+		}
+
+	}
+
+	/**
+	 * Method that determines if key is in the table or not.
+	 *
+	 * @param key for input.
+	 * @return true or false for output.
+	 */
+	public boolean has(K key) {
+
+		return (get(key) != null);
+
+	}
+
+	/**
+	 * Method that places val at the location determined by key.
+	 *
+	 * @param key for input.
+	 * @param val for input.
+	 * @return true or false for output.
+	 */
+	public boolean put(K key, V val) {
+
+		long stamp = lock.writeLock();
+
+		try {
+
+			return (table.put(key, val));
+
+		} finally {
+
+			lock.unlockWrite(stamp);
+
+		}
+
+	}
+
+	/**
+	 * Method that removes given key and value pair from table.
+	 *
+	 * @param key for input.
+	 * @return value or null for output.
+	 */
+	public V remove(K key) {
+
+		long stamp = lock.writeLock();
+
+		try {
+
+			return (table.remove(key));
+
+		} finally {
+
+			lock.unlockWrite(stamp);
+
+		}
+
+	}
+
+	/**
+	 * Method that changes the capacity of the storage to be newCap.
+	 *
+	 * @param newCap for input.
+	 * @return true or false for output.
+	 */
+	public boolean rehash(int newCap) {
+
+		long stamp = lock.writeLock();
+
+		try {
+
+			return (table.rehash(newCap));
+
+		} finally {
+
+			lock.unlockWrite(stamp);
+
+		}
+
+	}
+
+	/**
+	 * Method for toString.
+	 *
+	 * @return string for output.
+	 */
+	@Override
+	public String toString() {
+
+		long stamp = lock.readLock();
+
+		try {
+
+			return (table.toString());
+
+		} finally {
+
+			lock.unlockRead(stamp);
+
+		}
+
+	}
+
+	/**
+	 * Main method for testing.
+	 * Runs several readers against one writer and checks that every key the
+	 * writer finished putting is visible with the right value.
+	 *
+	 * @param args for input.
+	 * @throws InterruptedException if a thread is interrupted.
+	 */
+	public static void main(String[] args) throws InterruptedException {
+
+		ThreeTenConcurrentHashTable<Integer, Integer> ht = new ThreeTenConcurrentHashTable<>(5);
+
+		if (ht.put(1, 10) && ht.put(2, 20) && ht.get(1) == 10 && ht.size() == 2
+				&& ht.remove(2) == 20 && !ht.has(2)) {
+			System.out.println("Yay 1");
+		}
+
+		final int numKeys = 20000;
+
+		final int[] written = new int[1];
+
+		final boolean[] failed = new boolean[1];
+
+		Thread writer = new Thread(() -> {
+			for (int i = 0; i < numKeys; i++) {
+				ht.put(i, i * 2);
+				if (i % 3 == 0) {
+					ht.remove(i);
+				}
+				synchronized (written) {
+					written[0] = i;
+				}
+			}
+		});
+
+		Thread[] readers = new Thread[4];
+
+		for (int r = 0; r < readers.length; r++) {
+			readers[r] = new Thread(() -> {
+				int done = 0;
+				while (done < numKeys - 1) {
+					synchronized (written) {
+						done = written[0];
+					}
+					for (int i = Math.max(0, done - 50); i < done; i++) {
+						Integer val = ht.get(i);
+						if ((i % 3 == 0 && val != null) || (i % 3 != 0 && (val == null || val != i * 2))) {
+							failed[0] = true;
+						}
+					}
+				}
+			});
+		}
+
+		writer.start();
+		for (Thread t : readers) {
+			t.start();
+		}
+		writer.join();
+		for (Thread t : readers) {
+			t.join();
+		}
+
+		if (!failed[0] && ht.size() == numKeys - (numKeys + 2) / 3) {
+			System.out.println("Yay 2");
+		}
+
+	}
+
+}
@@ -117,6 +117,16 @@ public class ThreeTenHashTable<K, V> {
 	 */
 	private int numOfElements;
 
+	/**
+	 * Private variable for the number of tombstones in storage.
+	 */
+	private int numOfTombstones;
+
+	/**
+	 * Private variable for the metrics recorder, null unless metrics are enabled.
+	 */
+	private ThreeTenHashTableMetrics metrics;
+
 	/**
 	 * Method to create a hash table with capacity as initCapacity.
 	 * 
@@ -185,7 +195,9 @@ public class ThreeTenHashTable<K, V> {
 
 		}
 
-		int hashKey = (key.hashCode() % this.storage.length);
+		int hashKey = Math.floorMod(key.hashCode(), this.storage.length);
+
+		int probes = 0;
 
 		for (;;) {
 
@@ -195,6 +207,12 @@ public class ThreeTenHashTable<K, V> {
 
 				this.storage[hashKey] = new TableEntry<>(key, val);
 
+				if (tombstones[hashKey] == true) {
+
+					numOfTombstones -= 1;
+
+				}
+
 				tombstones[hashKey] = false;
 
 				numOfElements += 1;
@@ -213,6 +231,14 @@ public class ThreeTenHashTable<K, V> {
 
 			hashKey = (hashKey + 1) % this.storage.length;
 
+			probes++;
+
+		}
+
+		if (metrics != null) {
+
+			metrics.recordProbe(ThreeTenHashTableMetrics.OP_PUT, probes);
+
 		}
 
 		if ((float) numOfElements / capacity() >= 0.8) {
@@ -221,6 +247,14 @@ public class ThreeTenHashTable<K, V> {
 
 		}
 
+		else if ((float) (numOfElements + numOfTombstones) / capacity() >= 0.8) {
+
+			// too few empty slots left for probes to stop, clear tombstones;
+			// grow too if live entries alone would soon refill the table
+			rehash((float) numOfElements / capacity() >= 0.4 ? 2 * capacity() : capacity());
+
+		}
+
 		return (true);
 
 	}
@@ -239,19 +273,33 @@ public class ThreeTenHashTable<K, V> {
 
 		}
 
-		int hashKey = (key.hashCode() % this.storage.length);
+		int hashKey = Math.floorMod(key.hashCode(), this.storage.length);
+
+		int probes = 0;
+
+		V found = null;
 
 		while (this.storage[hashKey] != null || tombstones[hashKey] == true) {
 
 			if (tombstones[hashKey] == false && this.storage[hashKey].key.equals(key)) {
 
-				return (this.storage[hashKey].value);
+				found = this.storage[hashKey].value;
+
+				break;
 			}
 
 			hashKey = (hashKey + 1) % this.storage.length;
+
+			probes++;
+		}
+
+		if (metrics != null) {
+
+			metrics.recordProbe(ThreeTenHashTableMetrics.OP_GET, probes);
+
 		}
 
-		return (null);
+		return (found);
 
 	}
 
@@ -284,6 +332,13 @@ public class ThreeTenHashTable<K, V> {
 
 		}
 
+		long startTime = System.nanoTime();
+
+		// reinsertion probes are part of the rehash, not of caller puts
+		ThreeTenHashTableMetrics recorder = this.metrics;
+
+		this.metrics = null;
+
 		TableEntry<K, V>[] tempTable = this.storage;
 
 		this.storage = new TableEntry[newCap];
@@ -292,6 +347,8 @@ public class ThreeTenHashTable<K, V> {
 
 		this.numOfElements = 0;
 
+		this.numOfTombstones = 0;
+
 		for (int i = 0; i < tempTable.length; i++) {
 
 			TableEntry<K, V> tableEntry = tempTable[i];
@@ -304,6 +361,14 @@ public class ThreeTenHashTable<K, V> {
 
 		}
 
+		this.metrics = recorder;
+
+		if (metrics != null) {
+
+			metrics.recordRehash(System.nanoTime() - startTime);
+
+		}
+
 		return (true);
 
 	}
@@ -323,7 +388,11 @@ public class ThreeTenHashTable<K, V> {
 
 		}
 
-		int hashKey = (key.hashCode() % this.storage.length);
+		int hashKey = Math.floorMod(key.hashCode(), this.storage.length);
+
+		int probes = 0;
+
+		V keyVal = null;
 
 		while (tombstones[hashKey] == true || this.storage[hashKey] != null) {
 
@@ -331,19 +400,78 @@ public class ThreeTenHashTable<K, V> {
 
 				tombstones[hashKey] = true;
 
-				V keyVal = this.storage[hashKey].value;
+				numOfTombstones += 1;
+
+				keyVal = this.storage[hashKey].value;
 
 				this.storage[hashKey] = null;
 
 				this.numOfElements -= 1;
 
-				return (keyVal);
+				break;
 			}
 
 			hashKey = (hashKey + 1) % this.storage.length;
+
+			probes++;
+		}
+
+		if (metrics != null) {
+
+			metrics.recordProbe(ThreeTenHashTableMetrics.OP_REMOVE, probes);
+
 		}
 
-		return (null);
+		return (keyVal);
+	}
+
+	/**
+	 * Method that reports the number of tombstones in storage.
+	 * 
+	 * @return number of tombstones for output.
+	 */
+	public int tombstoneCount() {
+
+		return (this.numOfTombstones);
+
+	}
+
+	/**
+	 * Method that turns on probe and rehash metrics for this table.
+	 * Metrics are off by default so plain tables pay nothing for them.
+	 * 
+	 * @return the metrics recorder for output.
+	 */
+	public ThreeTenHashTableMetrics enableMetrics() {
+
+		if (this.metrics == null) {
+
+			this.metrics = new ThreeTenHashTableMetrics(this);
+
+		}
+
+		return (this.metrics);
+
+	}
+
+	/**
+	 * Method that turns off metrics for this table.
+	 */
+	public void disableMetrics() {
+
+		this.metrics = null;
+
+	}
+
+	/**
+	 * Method that reports the metrics recorder for this table.
+	 * 
+	 * @return the metrics recorder, or null if metrics are off, for output.
+	 */
+	public ThreeTenHashTableMetrics getMetrics() {
+
+		return (this.metrics);
+
 	}
 
 	/**
@@ -391,6 +519,33 @@ public class ThreeTenHashTable<K, V> {
 			System.out.println("Yay 6");
 		}
 
+		ThreeTenHashTable<Integer, Character> ht2 = new ThreeTenHashTable<>(10);
+		ThreeTenHashTableMetrics metrics = ht2.enableMetrics();
+		ht2.put(1, 'A');
+		ht2.put(11, 'B');
+		ht2.put(21, 'C');
+		ht2.get(21);
+		ht2.remove(11);
+		MetricsSnapshot snap = metrics.snapshot();
+
+		if (snap.getMaxProbeLength(ThreeTenHashTableMetrics.OP_PUT) == 2
+				&& snap.getOperationCount(ThreeTenHashTableMetrics.OP_GET) == 1
+				&& snap.getAverageProbeLength(ThreeTenHashTableMetrics.OP_GET) == 2.0
+				&& snap.getTombstoneCount() == 1 && snap.getTombstoneDensity() == 0.1
+				&& snap.getRehashCount() == 0) {
+			System.out.println("Yay 7");
+		}
+
+		// negative hash codes still map to a slot
+		ThreeTenHashTable<Integer, String> ht3 = new ThreeTenHashTable<>(7);
+		ht3.put(-3, "minus three");
+		ht3.put(Integer.MIN_VALUE, "min");
+
+		if ("minus three".equals(ht3.get(-3)) && "min".equals(ht3.get(Integer.MIN_VALUE)) && ht3.remove(-3) != null
+				&& ht3.get(-3) == null) {
+			System.out.println("Yay 8");
+		}
+
 	}
 
 }
\ No newline at end of file
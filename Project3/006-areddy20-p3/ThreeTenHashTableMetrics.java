@@ -0,0 +1,382 @@
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * This is the ThreeTenHashTableMetrics class.
+ * It records probe lengths and rehash events for one ThreeTenHashTable.
+ * Probe length is the number of slots looked at past the home slot.
+ * 
+ * <p>
+ * Only the thread that owns the table writes the counters. JMX reads them
+ * from other threads without locking: the rehash counters and the array
+ * references are volatile, so reset and rehash updates are seen, but
+ * per-operation counts and histograms read through an array may lag behind
+ * the owning thread by a few updates.
+ * 
+ * @author Aditi Reddy.
+ */
+public class ThreeTenHashTableMetrics implements ThreeTenHashTableMetricsMBean {
+
+	/**
+	 * Operation index for put.
+	 */
+	public static final int OP_PUT = 0;
+
+	/**
+	 * Operation index for get.
+	 */
+	public static final int OP_GET = 1;
+
+	/**
+	 * Operation index for remove.
+	 */
+	public static final int OP_REMOVE = 2;
+
+	/**
+	 * Number of operation kinds that are recorded.
+	 */
+	public static final int NUM_OPS = 3;
+
+	/**
+	 * Number of histogram buckets. Bucket 0 holds probe length 0, bucket i holds
+	 * lengths from 2^(i-1) to 2^i - 1, and the last bucket holds everything
+	 * longer.
+	 */
+	public static final int HISTOGRAM_BUCKETS = 12;
+
+	/**
+	 * Private variable for the table being measured.
+	 */
+	private final ThreeTenHashTable<?, ?> table;
+
+	/**
+	 * Private variable for the number of operations of each kind.
+	 */
+	private volatile long[] opCounts;
+
+	/**
+	 * Private variable for the summed probe lengths of each kind.
+	 */
+	private volatile long[] probeTotals;
+
+	/**
+	 * Private variable for the longest probe of each kind.
+	 */
+	private volatile long[] probeMax;
+
+	/**
+	 * Private variable for the probe length histogram of each kind.
+	 */
+	private volatile long[][] histogram;
+
+	/**
+	 * Private variable for the number of rehashes.
+	 */
+	private volatile long rehashCount;
+
+	/**
+	 * Private variable for the total time spent rehashing.
+	 */
+	private volatile long rehashNanos;
+
+	/**
+	 * Private variable for the longest single rehash.
+	 */
+	private volatile long rehashMaxNanos;
+
+	/**
+	 * Method to create metrics for the given table.
+	 * 
+	 * @param table for input.
+	 */
+	ThreeTenHashTableMetrics(ThreeTenHashTable<?, ?> table) {
+
+		this.table = table;
+
+		reset();
+
+	}
+
+	/**
+	 * Method that reports which histogram bucket a probe length falls in.
+	 * 
+	 * @param probes for input.
+	 * @return bucket index for output.
+	 */
+	public static int bucketOf(int probes) {
+
+		int bucket = 32 - Integer.numberOfLeadingZeros(probes);
+
+		return (Math.min(bucket, HISTOGRAM_BUCKETS - 1));
+
+	}
+
+	/**
+	 * Method that records the probe length of one operation.
+	 * 
+	 * @param op     for input.
+	 * @param probes for input.
+	 */
+	void recordProbe(int op, int probes) {
+
+		opCounts[op]++;
+
+		probeTotals[op] += probes;
+
+		if (probes > probeMax[op]) {
+
+			probeMax[op] = probes;
+
+		}
+
+		histogram[op][bucketOf(probes)]++;
+
+	}
+
+	/**
+	 * Method that records one rehash.
+	 * 
+	 * @param nanos for input.
+	 */
+	void recordRehash(long nanos) {
+
+		rehashCount++;
+
+		rehashNanos += nanos;
+
+		if (nanos > rehashMaxNanos) {
+
+			rehashMaxNanos = nanos;
+
+		}
+
+	}
+
+	/**
+	 * Method that copies the current counters into a snapshot.
+	 * 
+	 * @return snapshot for output.
+	 */
+	public MetricsSnapshot snapshot() {
+
+		long[][] histCopy = new long[NUM_OPS][];
+
+		for (int i = 0; i < NUM_OPS; i++) {
+
+			histCopy[i] = histogram[i].clone();
+
+		}
+
+		return (new MetricsSnapshot(opCounts.clone(), probeTotals.clone(), probeMax.clone(), histCopy,
+				table.capacity(), table.size(), table.tombstoneCount(), rehashCount, rehashNanos, rehashMaxNanos));
+
+	}
+
+	/**
+	 * Method that registers these metrics with the platform MBean server.
+	 * 
+	 * @param name for input.
+	 * @return the registered object name for output.
+	 * @throws JMException if the name is bad or already taken.
+	 */
+	public ObjectName registerMBean(String name) throws JMException {
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+
+		ObjectName objectName = new ObjectName("ThreeTenHashTable:type=Metrics,name=" + ObjectName.quote(name));
+
+		server.registerMBean(this, objectName);
+
+		return (objectName);
+
+	}
+
+	/**
+	 * Method that removes these metrics from the platform MBean server.
+	 * 
+	 * @param objectName for input.
+	 * @throws JMException if the name is not registered.
+	 */
+	public static void unregisterMBean(ObjectName objectName) throws JMException {
+
+		ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void reset() {
+
+		this.opCounts = new long[NUM_OPS];
+
+		this.probeTotals = new long[NUM_OPS];
+
+		this.probeMax = new long[NUM_OPS];
+
+		this.histogram = new long[NUM_OPS][HISTOGRAM_BUCKETS];
+
+		this.rehashCount = 0;
+
+		this.rehashNanos = 0;
+
+		this.rehashMaxNanos = 0;
+
+	}
+
+	/**
+	 * Private method that averages the probe length of one kind.
+	 * 
+	 * @param op for input.
+	 * @return average for output.
+	 */
+	private double average(int op) {
+
+		if (opCounts[op] == 0) {
+
+			return (0.0);
+
+		}
+
+		return ((double) probeTotals[op] / opCounts[op]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getPutCount() {
+
+		return (opCounts[OP_PUT]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getGetCount() {
+
+		return (opCounts[OP_GET]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getRemoveCount() {
+
+		return (opCounts[OP_REMOVE]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getAveragePutProbeLength() {
+
+		return (average(OP_PUT));
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getAverageGetProbeLength() {
+
+		return (average(OP_GET));
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getAverageRemoveProbeLength() {
+
+		return (average(OP_REMOVE));
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getMaxPutProbeLength() {
+
+		return (probeMax[OP_PUT]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getMaxGetProbeLength() {
+
+		return (probeMax[OP_GET]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getMaxRemoveProbeLength() {
+
+		return (probeMax[OP_REMOVE]);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getCapacity() {
+
+		return (table.capacity());
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public int getSize() {
+
+		return (table.size());
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public double getTombstoneDensity() {
+
+		return ((double) table.tombstoneCount() / table.capacity());
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getRehashCount() {
+
+		return (rehashCount);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getTotalRehashNanos() {
+
+		return (rehashNanos);
+
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public long getMaxRehashNanos() {
+
+		return (rehashMaxNanos);
+
+	}
+
+}
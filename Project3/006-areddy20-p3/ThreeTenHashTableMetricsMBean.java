@@ -0,0 +1,118 @@
+/**
+ * This is the management interface for ThreeTenHashTableMetrics.
+ * 
+ * @author Aditi Reddy.
+ */
+public interface ThreeTenHashTableMetricsMBean {
+
+	/**
+	 * Method that reports how many puts were recorded.
+	 * 
+	 * @return put count for output.
+	 */
+	long getPutCount();
+
+	/**
+	 * Method that reports how many gets were recorded.
+	 * 
+	 * @return get count for output.
+	 */
+	long getGetCount();
+
+	/**
+	 * Method that reports how many removes were recorded.
+	 * 
+	 * @return remove count for output.
+	 */
+	long getRemoveCount();
+
+	/**
+	 * Method that reports the average probe length of puts.
+	 * 
+	 * @return average probe length for output.
+	 */
+	double getAveragePutProbeLength();
+
+	/**
+	 * Method that reports the average probe length of gets.
+	 * 
+	 * @return average probe length for output.
+	 */
+	double getAverageGetProbeLength();
+
+	/**
+	 * Method that reports the average probe length of removes.
+	 * 
+	 * @return average probe length for output.
+	 */
+	double getAverageRemoveProbeLength();
+
+	/**
+	 * Method that reports the longest probe of any put.
+	 * 
+	 * @return max probe length for output.
+	 */
+	long getMaxPutProbeLength();
+
+	/**
+	 * Method that reports the longest probe of any get.
+	 * 
+	 * @return max probe length for output.
+	 */
+	long getMaxGetProbeLength();
+
+	/**
+	 * Method that reports the longest probe of any remove.
+	 * 
+	 * @return max probe length for output.
+	 */
+	long getMaxRemoveProbeLength();
+
+	/**
+	 * Method that reports the current capacity of the table.
+	 * 
+	 * @return capacity for output.
+	 */
+	int getCapacity();
+
+	/**
+	 * Method that reports the current number of elements in the table.
+	 * 
+	 * @return size for output.
+	 */
+	int getSize();
+
+	/**
+	 * Method that reports the fraction of slots holding a tombstone.
+	 * 
+	 * @return tombstone density for output.
+	 */
+	double getTombstoneDensity();
+
+	/**
+	 * Method that reports how many rehashes happened.
+	 * 
+	 * @return rehash count for output.
+	 */
+	long getRehashCount();
+
+	/**
+	 * Method that reports the total time spent rehashing.
+	 * 
+	 * @return nanoseconds for output.
+	 */
+	long getTotalRehashNanos();
+
+	/**
+	 * Method that reports the longest single rehash.
+	 * 
+	 * @return nanoseconds for output.
+	 */
+	long getMaxRehashNanos();
+
+	/**
+	 * Method that clears all recorded counters.
+	 */
+	void reset();
+
+}
@@ -1,16 +1,66 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * This is the ThreeTenKTree class.
  * 
  * @param <E> for use of generics.
  * @author Aditi Reddy.
  */
-public class ThreeTenKTree<E> {
+public class ThreeTenKTree<E> implements Iterable<E> {
 
 	/**
 	 * Private variable for the underlying array for k-ary tree storage.
+	 * It is null once the tree has switched to sparse pages.
 	 */
 	private E[] storage;
 
+	/**
+	 * Private variable for the number of slots in use, the # of nodes of a
+	 * perfect tree of current height. Storage may be longer than this so that
+	 * adding a level does not always copy the array.
+	 */
+	private int storageLength;
+
+	/**
+	 * Largest array length the storage is allowed to grow to.
+	 */
+	private static final int MAX_STORAGE_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Private variable for sparse storage, null while the tree is dense.
+	 * Slot i lives at pages[i / PAGE_SIZE][i % PAGE_SIZE] and a page is only
+	 * allocated once a node is stored in it.
+	 */
+	private E[][] pages;
+
+	/**
+	 * Number of slots in one page of sparse storage.
+	 */
+	private static final int PAGE_SIZE = 1024;
+
+	/**
+	 * Capacity above which a tree may switch to sparse storage.
+	 */
+	private static final int SPARSE_MIN_CAPACITY = 1 << 16;
+
+	/**
+	 * A tree switches to sparse storage when fewer than one slot in this many
+	 * would hold a node.
+	 */
+	private static final int SPARSE_OCCUPANCY = 16;
+
 	/**
 	 * Private variable for the hash table.
 	 */
@@ -27,9 +77,23 @@ public class ThreeTenKTree<E> {
 	private int treeHeight;
 
 	/**
-	 * Private variable for the tree levels.
+	 * Private variable for the first index on each depth, built on first use.
+	 * It only depends on the branch factor, so set() and remove() never make
+	 * it stale.
+	 */
+	private long[] levelStarts;
+
+	/**
+	 * Private variable for branchK to the power of each depth, built with
+	 * levelStarts.
+	 */
+	private long[] levelPowers;
+
+	/**
+	 * Private variable for the number of nodes on each level of the tree.
+	 * Levels are small dense integers so they index the array directly.
 	 */
-	private ThreeTenHashTable<Integer, Integer> treeLevels;
+	private int[] treeLevels;
 
 	/**
 	 * Method for initializing tree storage as an array of given length and
@@ -44,9 +108,11 @@ public class ThreeTenKTree<E> {
 
 		this.storage = (E[]) new Object[length];
 
+		this.storageLength = length;
+
 		this.branchK = k;
 
-		this.treeLevels = new ThreeTenHashTable<>();
+		this.treeLevels = new int[1];
 
 		this.treeHeight = -1;
 
@@ -83,7 +149,135 @@ public class ThreeTenKTree<E> {
 	 */
 	public int capacity() {
 
-		return (this.storage.length);
+		return (this.storageLength);
+
+	}
+
+	/**
+	 * Static method that reports the # of nodes of a perfect k-ary tree of the
+	 * given height, (k^(h+1)-1)/(k-1).
+	 * Long.MAX_VALUE is returned if the size does not fit in a long.
+	 * 
+	 * @param k      for input.
+	 * @param height for input.
+	 * @return number of nodes for output.
+	 */
+	public static long perfectSize(int k, int height) {
+
+		if (height < 0) {
+
+			return (0);
+
+		}
+
+		long total = 1;
+
+		long levelSize = 1;
+
+		for (int h = 1; h <= height; h++) {
+
+			if (levelSize > Long.MAX_VALUE / k) {
+
+				return (Long.MAX_VALUE);
+
+			}
+
+			levelSize *= k;
+
+			if (total > Long.MAX_VALUE - levelSize) {
+
+				return (Long.MAX_VALUE);
+
+			}
+
+			total += levelSize;
+
+		}
+
+		return (total);
+
+	}
+
+	/**
+	 * Method that reserves storage for a perfect tree of the given height so
+	 * that set() can add levels up to that height without copying.
+	 * Capacity and height of the tree do not change.
+	 * 
+	 * @param height for input.
+	 * @throws IllegalArgumentException if that tree is too big for an array.
+	 */
+	public void ensureHeight(int height) {
+
+		long needed = perfectSize(this.branchK, height);
+
+		if (needed > MAX_STORAGE_LENGTH) {
+
+			throw new IllegalArgumentException("height " + height + " is too large for branch " + this.branchK);
+
+		}
+
+		reserve((int) needed);
+
+	}
+
+	/**
+	 * Private method that grows storage to at least minLength.
+	 * Storage at least doubles so repeated growth copies each slot a constant
+	 * number of times overall.
+	 * 
+	 * @param minLength for input.
+	 */
+	@SuppressWarnings("unchecked")
+	private void reserve(int minLength) {
+
+		if (this.pages != null) {
+
+			int numPages = (int) ((minLength + (long) PAGE_SIZE - 1) / PAGE_SIZE);
+
+			if (numPages > this.pages.length) {
+
+				this.pages = Arrays.copyOf(this.pages, Math.max(numPages, 2 * this.pages.length));
+
+			}
+
+			return;
+
+		}
+
+		if (minLength <= this.storage.length) {
+
+			return;
+
+		}
+
+		if (minLength > SPARSE_MIN_CAPACITY && (long) size() * SPARSE_OCCUPANCY < minLength) {
+
+			// mostly empty slots, move the nodes into pages instead of a bigger array
+			E[] dense = this.storage;
+
+			this.storage = null;
+
+			this.pages = (E[][]) new Object[1][];
+
+			reserve(minLength);
+
+			for (int i = 0; i < dense.length; i++) {
+
+				if (dense[i] != null) {
+
+					setSlot(i, dense[i]);
+
+				}
+
+			}
+
+			return;
+
+		}
+
+		long newLength = Math.max(minLength, Math.min(2L * this.storage.length, MAX_STORAGE_LENGTH));
+
+		this.storage = Arrays.copyOf(this.storage, (int) newLength);
 
 	}
 
@@ -98,6 +292,139 @@ public class ThreeTenKTree<E> {
 
 	}
 
+	/**
+	 * Method that reports whether the tree is using sparse storage.
+	 * 
+	 * @return true or false for output.
+	 */
+	public boolean isSparse() {
+
+		return (this.pages != null);
+
+	}
+
+	/**
+	 * Private method that reads a storage slot in either layout.
+	 * 
+	 * @param index for input.
+	 * @return value or null for output.
+	 */
+	private E slot(int index) {
+
+		if (this.pages == null) {
+
+			return (this.storage[index]);
+
+		}
+
+		E[] page = this.pages[index / PAGE_SIZE];
+
+		if (page == null) {
+
+			return (null);
+
+		}
+
+		return (page[index % PAGE_SIZE]);
+
+	}
+
+	/**
+	 * Private method that writes a storage slot in either layout.
+	 * 
+	 * @param index for input.
+	 * @param value for input.
+	 */
+	@SuppressWarnings("unchecked")
+	private void setSlot(int index, E value) {
+
+		if (this.pages == null) {
+
+			this.storage[index] = value;
+
+			return;
+
+		}
+
+		E[] page = this.pages[index / PAGE_SIZE];
+
+		if (page == null) {
+
+			if (value == null) {
+
+				return;
+
+			}
+
+			page = (E[]) new Object[PAGE_SIZE];
+
+			this.pages[index / PAGE_SIZE] = page;
+
+		}
+
+		page[index % PAGE_SIZE] = value;
+
+	}
+
+	/**
+	 * Private method that finds the first slot at or after index holding a
+	 * node. Unallocated pages are skipped whole.
+	 * 
+	 * @param index for input.
+	 * @return slot index, or -1 if there is none, for output.
+	 */
+	private int nextOccupied(int index) {
+
+		return (nextOccupied(index, this.capacity() - 1));
+
+	}
+
+	/**
+	 * Private method that finds the first slot from index to endInclusive
+	 * holding a node. Callers walking one level or sibling range pass the end
+	 * of that range, so an empty range costs its own length and not a scan to
+	 * the next node elsewhere in storage.
+	 * 
+	 * @param index        for input.
+	 * @param endInclusive for input.
+	 * @return slot index, or -1 if there is none, for output.
+	 */
+	private int nextOccupied(int index, int endInclusive) {
+
+		int end = Math.min(endInclusive, this.capacity() - 1);
+
+		while (index <= end) {
+
+			if (this.pages != null && this.pages[index / PAGE_SIZE] == null) {
+
+				long nextPage = ((long) index / PAGE_SIZE + 1) * PAGE_SIZE;
+
+				if (nextPage > end) {
+
+					return (-1);
+
+				}
+
+				index = (int) nextPage;
+
+				continue;
+
+			}
+
+			if (slot(index) != null) {
+
+				return (index);
+
+			}
+
+			index++;
+
+		}
+
+		return (-1);
+
+	}
+
 	/**
 	 * Method that sets value at index in tree storage.
 	 * Leaf node is removed if value is null.
@@ -107,27 +434,30 @@ public class ThreeTenKTree<E> {
 	 * @param value for input.
 	 * @return true or false of output.
 	 */
-	@SuppressWarnings("unchecked")
 	public boolean set(int index, E value) {
 
 		if (value == null) {
 
 			if (index >= 0 && index < this.capacity()) {
 
-				if (this.storage[index] == null) {
+				if (slot(index) == null) {
 
 					return (false);
 
 				}
 
-				E node = storage[index];
+				E node = slot(index);
 
 				if (isLeaf(node)) {
 
-					storage[index] = null;
+					setSlot(index, null);
 
 					indexMap.remove(node);
 
+					int depth = depthOf(index);
+
+					setLevelCount(depth, levelCount(depth) - 1);
+
 					return (true);
 
 				}
@@ -152,11 +482,11 @@ public class ThreeTenKTree<E> {
 
 			}
 
-			if (index >= 0 && index < this.capacity() && this.storage[index] != null) {
+			if (index >= 0 && index < this.capacity() && slot(index) != null) {
 
-				indexMap.remove(this.storage[index]);
+				indexMap.remove(slot(index));
 
-				this.storage[index] = value;
+				setSlot(index, value);
 
 				this.indexMap.put(value, index);
 
@@ -168,9 +498,13 @@ public class ThreeTenKTree<E> {
 
 				if (index == 0) {
 
-					this.storage[index] = value;
+					reserve(1);
+
+					this.storageLength = Math.max(this.storageLength, 1);
 
-					this.treeLevels.put(0, 1);
+					setSlot(index, value);
+
+					this.treeLevels[0] = 1;
 
 					this.treeHeight = 0;
 
@@ -184,11 +518,11 @@ public class ThreeTenKTree<E> {
 
 					int parentInd = (index - 1) / this.branchK;
 
-					if (index > 0 && parentInd < this.capacity() && this.storage[parentInd] != null) {
+					if (index > 0 && parentInd < this.capacity() && slot(parentInd) != null) {
 
 						int height = 0;
 
-						int count = 1;
+						long count = 1;
 
 						int tmpIndex = index;
 
@@ -202,37 +536,33 @@ public class ThreeTenKTree<E> {
 
 						}
 
-						int level = 0;
-
-						if (treeLevels.get(height) != null) {
-
-							level = treeLevels.get(height);
-
-						}
+						if (index >= this.capacity()) {
 
-						if (level == 0 && height == treeHeight + 1) {
+							long newLength = this.storageLength + count;
 
-							treeHeight++;
+							if (newLength > MAX_STORAGE_LENGTH) {
 
-						}
+								return (false);
 
-						treeLevels.put(height, level + 1);
+							}
 
-						if (index >= this.capacity()) {
+							reserve((int) newLength);
 
-							E[] newTempStorage = (E[]) new Object[this.storage.length + count];
+							this.storageLength = (int) newLength;
 
-							for (int i = 0; i < storage.length; i++) {
+						}
 
-								newTempStorage[i] = this.storage[i];
+						int level = levelCount(height);
 
-							}
+						if (level == 0 && height == treeHeight + 1) {
 
-							storage = newTempStorage;
+							treeHeight++;
 
 						}
 
-						this.storage[index] = value;
+						setLevelCount(height, level + 1);
+
+						setSlot(index, value);
 
 						this.indexMap.put(value, index);
 
@@ -256,6 +586,51 @@ public class ThreeTenKTree<E> {
 
 	}
 
+	/**
+	 * Private method that reports the number of nodes on a level.
+	 * 
+	 * @param level for input.
+	 * @return count for output.
+	 */
+	private int levelCount(int level) {
+
+		if (level < 0 || level >= this.treeLevels.length) {
+
+			return (0);
+
+		}
+
+		return (this.treeLevels[level]);
+
+	}
+
+	/**
+	 * Private method that sets the number of nodes on a level.
+	 * Level counts array is doubled when it is too small.
+	 * 
+	 * @param level for input.
+	 * @param count for input.
+	 */
+	private void setLevelCount(int level, int count) {
+
+		if (level >= this.treeLevels.length) {
+
+			int newLength = this.treeLevels.length * 2;
+
+			while (newLength <= level) {
+
+				newLength *= 2;
+
+			}
+
+			this.treeLevels = Arrays.copyOf(this.treeLevels, newLength);
+
+		}
+
+		this.treeLevels[level] = count;
+
+	}
+
 	/**
 	 * Method that gets value at node index.
 	 * If index is invalid or index has no node, null is returned.
@@ -265,7 +640,13 @@ public class ThreeTenKTree<E> {
 	 */
 	public E get(int index) {
 
-		return (this.storage[index]);
+		if (index < 0 || index >= this.capacity()) {
+
+			return (null);
+
+		}
+
+		return (slot(index));
 
 	}
 
@@ -278,13 +659,11 @@ public class ThreeTenKTree<E> {
 
 		StringBuilder sb = new StringBuilder();
 
-		for (E kayTree : storage) {
+		for (int i = nextOccupied(0); i >= 0; i = nextOccupied(i + 1)) {
 
-			if (kayTree == null) {
-				continue;
-			}
+			E kayTree = slot(i);
 
-			if (sb.toString().isEmpty() == false) {
+			if (sb.length() > 0) {
 
 				sb.append(" ");
 
@@ -333,7 +712,7 @@ public class ThreeTenKTree<E> {
 
 			}
 
-			E kayTree = storage[i];
+			E kayTree = slot(i);
 
 			if (kayTree == null) {
 
@@ -377,238 +756,1635 @@ public class ThreeTenKTree<E> {
 
 		}
 
-		if (index == 0) {
-
-			return (value.toString());
-
-		}
+		int[] path = ancestorIndices(index);
 
 		StringBuilder sb = new StringBuilder();
 
-		sb.append(value);
+		for (int i = 0; i < path.length; i++) {
 
-		int current = (index - 1) / branchK;
+			if (i > 0) {
 
-		while (current > 0) {
+				sb.append("-->");
 
-			sb.insert(0, storage[current].toString() + "-->");
+			}
 
-			current = (current - 1) / branchK;
+			sb.append(slot(path[i]).toString());
 
 		}
 
-		sb.insert(0, storage[0].toString() + "-->");
-
 		return (sb.toString());
 
 	}
 
 	/**
-	 * Method that finds node of given value and reports children of that node as a
-	 * string.
-	 * If value is not present, null is returned.
-	 * If node is a leaf, empty string is returned.
+	 * Method that reports the index of the node holding value.
 	 * 
 	 * @param value for input.
-	 * @return string or null for output.
+	 * @return index, or -1 if value is not present, for output.
 	 */
-	public String getChildren(E value) {
+	public int indexOf(E value) {
 
 		if (value == null) {
 
+			return (-1);
+
+		}
+
+		Integer index = indexMap.get(value);
+
+		if (index == null) {
+
+			return (-1);
+
+		}
+
+		return (index);
+
+	}
+
+	/**
+	 * Method that reports the depth of the node at index, root being 0.
+	 * Depth is positional, so an index past the storage still has one.
+	 * 
+	 * @param index for input.
+	 * @return depth for output.
+	 * @throws IndexOutOfBoundsException if index is negative.
+	 */
+	public int depthOf(int index) {
+
+		if (index < 0) {
+
+			throw new IndexOutOfBoundsException("index " + index);
+
+		}
+
+		if (branchK == 1) {
+
+			return (index);
+
+		}
+
+		buildLevelIndex();
+
+		int low = 0;
+
+		int high = levelStarts.length - 1;
+
+		while (low < high) {
+
+			int mid = (low + high + 1) / 2;
+
+			if (levelStarts[mid] <= index) {
+
+				low = mid;
+
+			}
+
+			else {
+
+				high = mid - 1;
+
+			}
+
+		}
+
+		return (low);
+
+	}
+
+	/**
+	 * Private method that builds the first index and width of every depth an
+	 * int index can reach. For k of 2 or more that is at most 32 depths.
+	 */
+	private void buildLevelIndex() {
+
+		if (levelStarts != null) {
+
+			return;
+
+		}
+
+		long[] starts = new long[33];
+
+		long[] powers = new long[33];
+
+		int depths = 1;
+
+		starts[0] = 0;
+
+		powers[0] = 1;
+
+		while (starts[depths - 1] + powers[depths - 1] <= Integer.MAX_VALUE) {
+
+			starts[depths] = starts[depths - 1] + powers[depths - 1];
+
+			powers[depths] = powers[depths - 1] * branchK;
+
+			depths++;
+
+		}
+
+		levelPowers = Arrays.copyOf(powers, depths);
+
+		levelStarts = Arrays.copyOf(starts, depths);
+
+	}
+
+	/**
+	 * Method that reports the index of the ancestor of index at the given
+	 * depth in constant time. On depth d, a node is the (index - start of d)th
+	 * one and its ancestor u levels up is that position divided by k^u.
+	 * 
+	 * @param index for input.
+	 * @param depth for input.
+	 * @return ancestor index, or -1 if depth is below the node, for output.
+	 */
+	public int levelAncestor(int index, int depth) {
+
+		int nodeDepth = depthOf(index);
+
+		if (depth < 0 || depth > nodeDepth) {
+
+			return (-1);
+
+		}
+
+		if (branchK == 1) {
+
+			return (depth);
+
+		}
+
+		long position = (index - levelStarts[nodeDepth]) / levelPowers[nodeDepth - depth];
+
+		return ((int) (levelStarts[depth] + position));
+
+	}
+
+	/**
+	 * Method that reports the depth of the node holding value.
+	 * 
+	 * @param value for input.
+	 * @return depth, or -1 if value is not present, for output.
+	 */
+	public int depth(E value) {
+
+		int index = indexOf(value);
+
+		if (index < 0) {
+
+			return (-1);
+
+		}
+
+		return (depthOf(index));
+
+	}
+
+	/**
+	 * Method that reports the indices from the root down to index.
+	 * 
+	 * @param index for input.
+	 * @return path of indices, root first, for output.
+	 * @throws IndexOutOfBoundsException if index is negative.
+	 */
+	public int[] ancestorIndices(int index) {
+
+		int[] path = new int[depthOf(index) + 1];
+
+		ancestorIndices(index, path);
+
+		return (path);
+
+	}
+
+	/**
+	 * Method that writes the indices from the root down to index into buf so
+	 * that callers can reuse one buffer across many queries.
+	 * 
+	 * @param index for input.
+	 * @param buf   for input, must hold at least depthOf(index) + 1 ints.
+	 * @return number of indices written for output.
+	 * @throws IndexOutOfBoundsException if index is negative.
+	 */
+	public int ancestorIndices(int index, int[] buf) {
+
+		int length = depthOf(index) + 1;
+
+		for (int i = length - 1; i >= 0; i--) {
+
+			buf[i] = index;
+
+			index = (index - 1) / branchK;
+
+		}
+
+		return (length);
+
+	}
+
+	/**
+	 * Method that determines if ancestor is a proper ancestor of value.
+	 * A node is not its own ancestor.
+	 * 
+	 * @param ancestor for input.
+	 * @param value    for input.
+	 * @return true or false for output.
+	 */
+	public boolean isAncestor(E ancestor, E value) {
+
+		int top = indexOf(ancestor);
+
+		int current = indexOf(value);
+
+		if (top < 0 || current < 0) {
+
+			return (false);
+
+		}
+
+		int topDepth = depthOf(top);
+
+		return (topDepth < depthOf(current) && levelAncestor(current, topDepth) == top);
+
+	}
+
+	/**
+	 * Method that reports the index of the lowest common ancestor of two
+	 * indices in O(log depth).
+	 * 
+	 * @param a for input.
+	 * @param b for input.
+	 * @return index for output.
+	 */
+	public int lowestCommonAncestorIndex(int a, int b) {
+
+		if (branchK == 1) {
+
+			return (Math.min(a, b));
+
+		}
+
+		int depth = Math.min(depthOf(a), depthOf(b));
+
+		long posA = levelAncestor(a, depth) - levelStarts[depth];
+
+		long posB = levelAncestor(b, depth) - levelStarts[depth];
+
+		// once two positions share an ancestor u levels up they share every
+		// higher one, so binary search for the fewest levels up
+		int low = 0;
+
+		int high = depth;
+
+		while (low < high) {
+
+			int mid = (low + high) / 2;
+
+			if (posA / levelPowers[mid] == posB / levelPowers[mid]) {
+
+				high = mid;
+
+			}
+
+			else {
+
+				low = mid + 1;
+
+			}
+
+		}
+
+		return ((int) (levelStarts[depth - low] + posA / levelPowers[low]));
+
+	}
+
+	/**
+	 * Method that reports the value of the lowest common ancestor of two values.
+	 * A node counts as its own ancestor here.
+	 * 
+	 * @param a for input.
+	 * @param b for input.
+	 * @return value, or null if either value is not present, for output.
+	 */
+	public E lowestCommonAncestor(E a, E b) {
+
+		int ia = indexOf(a);
+
+		int ib = indexOf(b);
+
+		if (ia < 0 || ib < 0) {
+
+			return (null);
+
+		}
+
+		return (slot(lowestCommonAncestorIndex(ia, ib)));
+
+	}
+
+	/**
+	 * Method that reports the number of nodes in the subtree rooted at value.
+	 * Descendants are found one level at a time as a range of indices.
+	 * 
+	 * @param value for input.
+	 * @return number of nodes, or 0 if value is not present, for output.
+	 */
+	public int subtreeSize(E value) {
+
+		int index = indexOf(value);
+
+		if (index < 0) {
+
+			return (0);
+
+		}
+
+		int count = 0;
+
+		long first = index;
+
+		long last = index;
+
+		while (first < this.capacity()) {
+
+			int end = (int) Math.min(last, this.capacity() - 1L);
+
+			for (int i = nextOccupied((int) first, end); i >= 0; i = nextOccupied(i + 1, end)) {
+
+				count++;
+
+			}
+
+			first = first * branchK + 1;
+
+			last = last * branchK + branchK;
+
+		}
+
+		return (count);
+
+	}
+
+	/**
+	 * Method that finds node of given value and reports children of that node as a
+	 * string.
+	 * If value is not present, null is returned.
+	 * If node is a leaf, empty string is returned.
+	 * 
+	 * @param value for input.
+	 * @return string or null for output.
+	 */
+	public String getChildren(E value) {
+
+		if (value == null) {
+
+			return (null);
+
+		}
+
+		StringBuilder sb = new StringBuilder();
+
+		Integer i = indexMap.get(value);
+
+		if (i == null) {
+
 			return (null);
 
 		}
 
-		StringBuilder sb = new StringBuilder();
+		for (int j = 0; j < branchK; j++) {
+
+			int childIndex = j + i * branchK + 1;
+
+			if (childIndex >= capacity()) {
+
+				continue;
+
+			}
+
+			if (slot(childIndex) != null) {
+
+				if (sb.length() > 0) {
+
+					sb.append(" ");
+
+				}
+
+				sb.append(slot(childIndex).toString());
+
+			}
+
+		}
+
+		return (sb.toString());
+
+	}
+
+	/**
+	 * Method that determines if value is in tree or not.
+	 * 
+	 * @param value for input.
+	 * @return true or false for output.
+	 */
+	public boolean has(E value) {
+
+		if (this.indexMap.get(value) != null) {
+
+			return (true);
+
+		}
+
+		return (false);
+
+	}
+
+	/**
+	 * Method that determines if value is in a leaf node of tree or not.
+	 * 
+	 * @param value for input.
+	 * @return true or false for output.
+	 */
+	public boolean isLeaf(E value) {
+
+		Integer index = indexMap.get(value);
+
+		if (index == null) {
+
+			return (false);
+
+		}
+
+		boolean childPresent = false;
+
+		for (int i = 0; i < branchK; i++) {
+
+			int childIndex = branchK * index + i + 1;
+
+			if (childIndex >= capacity()) {
+
+				break;
+
+			}
+
+			if (slot(childIndex) != null) {
+
+				childPresent = true;
+
+				break;
+
+			}
+
+		}
+
+		if (childPresent == true) {
+
+			return (false);
+
+		}
+
+		return (true);
+
+	}
+
+	/**
+	 * Method that removes value from tree if value is in a leaf node.
+	 * 
+	 * @param value for input.
+	 * @return true or false for output.
+	 */
+	public boolean remove(E value) {
+
+		Integer index = indexMap.get(value);
+
+		if (index == null) {
+
+			return (false);
+
+		}
+
+		return (set(index, null));
+
+	}
+
+	/**
+	 * Method that removes value and every node below it.
+	 * Height and storage shrink if the deepest levels are left empty.
+	 * 
+	 * @param value for input.
+	 * @return number of nodes removed for output.
+	 */
+	public int removeSubtree(E value) {
+
+		int index = indexOf(value);
+
+		if (index < 0) {
+
+			return (0);
+
+		}
+
+		int removed = clearSubtree(index);
+
+		shrinkToHeight();
+
+		return (removed);
+
+	}
+
+	/**
+	 * Method that removes every value in values along with the nodes below it.
+	 * Values that are not present, or were already removed under another
+	 * value, are skipped. Height and storage shrink once at the end.
+	 * 
+	 * @param values for input.
+	 * @return number of nodes removed for output.
+	 */
+	public int removeAll(Collection<? extends E> values) {
+
+		int removed = 0;
+
+		for (E value : values) {
+
+			int index = indexOf(value);
+
+			if (index >= 0) {
+
+				removed += clearSubtree(index);
+
+			}
+
+		}
+
+		shrinkToHeight();
+
+		return (removed);
+
+	}
+
+	/**
+	 * Private method that clears the subtree at index one level at a time.
+	 * The descendants on each level are one range of indices, so there is no
+	 * per-node leaf check.
+	 * 
+	 * @param index for input.
+	 * @return number of nodes removed for output.
+	 */
+	private int clearSubtree(int index) {
+
+		int removed = 0;
+
+		int depth = depthOf(index);
+
+		long first = index;
+
+		long last = index;
+
+		while (first < this.capacity()) {
+
+			int end = (int) Math.min(last, this.capacity() - 1L);
+
+			int onLevel = 0;
+
+			for (int i = nextOccupied((int) first, end); i >= 0; i = nextOccupied(i + 1, end)) {
+
+				indexMap.remove(slot(i));
+
+				setSlot(i, null);
+
+				onLevel++;
+
+			}
+
+			setLevelCount(depth, levelCount(depth) - onLevel);
+
+			removed += onLevel;
+
+			first = first * branchK + 1;
+
+			last = last * branchK + branchK;
+
+			depth++;
+
+		}
+
+		return (removed);
+
+	}
+
+	/**
+	 * Private method that drops empty levels from the bottom of the tree and
+	 * trims storage to a perfect tree of the new height.
+	 */
+	private void shrinkToHeight() {
+
+		while (this.treeHeight >= 0 && levelCount(this.treeHeight) == 0) {
+
+			this.treeHeight--;
+
+		}
+
+		int newLength = (int) Math.max(perfectSize(this.branchK, this.treeHeight), 1);
+
+		if (newLength >= this.storageLength) {
+
+			return;
+
+		}
+
+		this.storageLength = newLength;
+
+		if (this.pages != null) {
+
+			int numPages = (newLength + PAGE_SIZE - 1) / PAGE_SIZE;
+
+			this.pages = Arrays.copyOf(this.pages, Math.max(numPages, 1));
+
+		}
+
+		else {
+
+			this.storage = Arrays.copyOf(this.storage, newLength);
+
+		}
+
+	}
+
+	/**
+	 * Private method that finds the first child of index that holds a node.
+	 * 
+	 * @param index for input.
+	 * @return child index, or -1 if index is a leaf, for output.
+	 */
+	private int firstChildIndex(int index) {
+
+		long first = (long) index * branchK + 1;
+
+		if (first >= this.capacity()) {
+
+			return (-1);
+
+		}
+
+		int end = (int) Math.min(first + branchK - 1, this.capacity() - 1L);
+
+		return (nextOccupied((int) first, end));
+
+	}
+
+	/**
+	 * Private method that finds the next sibling after index that holds a node.
+	 * 
+	 * @param index for input.
+	 * @return sibling index, or -1 if there is none, for output.
+	 */
+	private int nextSiblingIndex(int index) {
+
+		if (index == 0) {
+
+			return (-1);
+
+		}
+
+		long parent = (index - 1) / branchK;
+
+		int end = (int) Math.min(parent * branchK + branchK, this.capacity() - 1L);
+
+		return (nextOccupied(index + 1, end));
+
+	}
+
+	/**
+	 * Private method that follows first children down from index to a leaf.
+	 * 
+	 * @param index for input.
+	 * @return leaf index for output.
+	 */
+	private int deepestFirstDescendant(int index) {
+
+		int child = firstChildIndex(index);
+
+		while (child >= 0) {
+
+			index = child;
+
+			child = firstChildIndex(index);
+
+		}
+
+		return (index);
+
+	}
+
+	/**
+	 * Order in which an index iterator walks the tree.
+	 */
+	private enum Order {
+		/** Root, then each level left to right. */
+		LEVEL,
+		/** Node, then its children's subtrees left to right. */
+		PRE,
+		/** Children's subtrees left to right, then node. */
+		POST
+	}
+
+	/**
+	 * Private class for walking node indices straight off the storage layout.
+	 * Parent and sibling moves are index arithmetic so no stack or queue is
+	 * kept, and an iterator holds only the next index.
+	 */
+	private class IndexIterator implements PrimitiveIterator.OfInt {
+
+		/**
+		 * Private variable for the order of the walk.
+		 */
+		private final Order order;
+
+		/**
+		 * Private variable for the next index to return, -1 when done.
+		 */
+		private int next;
+
+		/**
+		 * Method to initialize IndexIterator.
+		 * 
+		 * @param order for input.
+		 */
+		IndexIterator(Order order) {
+
+			this.order = order;
+
+			if (size() == 0) {
+
+				this.next = -1;
+
+			}
+
+			else if (order == Order.POST) {
+
+				this.next = deepestFirstDescendant(0);
+
+			}
+
+			else {
+
+				this.next = nextOccupied(0);
+
+			}
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public boolean hasNext() {
+
+			return (next >= 0);
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public int nextInt() {
+
+			if (next < 0) {
+
+				throw new NoSuchElementException();
+
+			}
+
+			int current = next;
+
+			if (order == Order.LEVEL) {
+
+				next = nextOccupied(current + 1);
+
+			}
+
+			else if (order == Order.PRE) {
+
+				next = preOrderSuccessor(current);
+
+			}
+
+			else {
+
+				next = postOrderSuccessor(current);
+
+			}
+
+			return (current);
+
+		}
+
+		/**
+		 * Private method that finds the node after index in pre order.
+		 * 
+		 * @param index for input.
+		 * @return index, or -1 at the end, for output.
+		 */
+		private int preOrderSuccessor(int index) {
+
+			int child = firstChildIndex(index);
+
+			if (child >= 0) {
+
+				return (child);
+
+			}
+
+			while (index > 0) {
+
+				int sibling = nextSiblingIndex(index);
+
+				if (sibling >= 0) {
+
+					return (sibling);
+
+				}
+
+				index = (index - 1) / branchK;
+
+			}
+
+			return (-1);
+
+		}
+
+		/**
+		 * Private method that finds the node after index in post order.
+		 * 
+		 * @param index for input.
+		 * @return index, or -1 at the end, for output.
+		 */
+		private int postOrderSuccessor(int index) {
+
+			if (index == 0) {
+
+				return (-1);
+
+			}
+
+			int sibling = nextSiblingIndex(index);
+
+			if (sibling >= 0) {
+
+				return (deepestFirstDescendant(sibling));
+
+			}
+
+			return ((index - 1) / branchK);
+
+		}
+
+	}
+
+	/**
+	 * Private class that turns an index iterator into a value iterator.
+	 */
+	private class ValueIterator implements Iterator<E> {
+
+		/**
+		 * Private variable for the underlying index iterator.
+		 */
+		private final IndexIterator indices;
+
+		/**
+		 * Method to initialize ValueIterator.
+		 * 
+		 * @param order for input.
+		 */
+		ValueIterator(Order order) {
+
+			this.indices = new IndexIterator(order);
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public boolean hasNext() {
+
+			return (indices.hasNext());
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public E next() {
+
+			return (slot(indices.nextInt()));
+
+		}
+
+	}
+
+	/**
+	 * Private class for splitting the level order walk into index ranges.
+	 * A range splits in half until it is shorter than SPLIT_THRESHOLD slots.
+	 */
+	private class LevelOrderSpliterator implements Spliterator<E> {
+
+		/**
+		 * Private variable for the next slot to look at.
+		 */
+		private int current;
+
+		/**
+		 * Private variable for the slot after the last one in this range.
+		 */
+		private final int end;
+
+		/**
+		 * Method to initialize LevelOrderSpliterator.
+		 * 
+		 * @param current for input.
+		 * @param end     for input.
+		 */
+		LevelOrderSpliterator(int current, int end) {
+
+			this.current = current;
+
+			this.end = end;
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public boolean tryAdvance(Consumer<? super E> action) {
+
+			int i = nextOccupied(current, end - 1);
+
+			if (i < 0) {
+
+				current = end;
+
+				return (false);
+
+			}
+
+			current = i + 1;
+
+			action.accept(slot(i));
+
+			return (true);
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public void forEachRemaining(Consumer<? super E> action) {
+
+			for (int i = nextOccupied(current, end - 1); i >= 0; i = nextOccupied(i + 1, end - 1)) {
+
+				action.accept(slot(i));
+
+			}
+
+			current = end;
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Spliterator<E> trySplit() {
+
+			int length = end - current;
+
+			if (length < SPLIT_THRESHOLD) {
+
+				return (null);
+
+			}
+
+			int mid = current + length / 2;
+
+			Spliterator<E> prefix = new LevelOrderSpliterator(current, mid);
+
+			current = mid;
+
+			return (prefix);
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public long estimateSize() {
+
+			return (end - current);
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public int characteristics() {
+
+			return (ORDERED | DISTINCT | NONNULL);
+
+		}
+
+	}
+
+	/**
+	 * Smallest range of slots a spliterator will split.
+	 */
+	private static final int SPLIT_THRESHOLD = 1024;
+
+	/**
+	 * Method that walks node indices in level order.
+	 * 
+	 * @return index iterator for output.
+	 */
+	public PrimitiveIterator.OfInt levelOrderIndices() {
+
+		return (new IndexIterator(Order.LEVEL));
+
+	}
+
+	/**
+	 * Method that walks node indices in pre order.
+	 * 
+	 * @return index iterator for output.
+	 */
+	public PrimitiveIterator.OfInt preOrderIndices() {
+
+		return (new IndexIterator(Order.PRE));
+
+	}
+
+	/**
+	 * Method that walks node indices in post order.
+	 * 
+	 * @return index iterator for output.
+	 */
+	public PrimitiveIterator.OfInt postOrderIndices() {
+
+		return (new IndexIterator(Order.POST));
+
+	}
+
+	/**
+	 * Method that walks values in level order.
+	 * 
+	 * @return value iterator for output.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+
+		return (new ValueIterator(Order.LEVEL));
+
+	}
+
+	/**
+	 * Method that walks values in pre order.
+	 * 
+	 * @return value iterator for output.
+	 */
+	public Iterator<E> preOrderIterator() {
+
+		return (new ValueIterator(Order.PRE));
+
+	}
+
+	/**
+	 * Method that walks values in post order.
+	 * 
+	 * @return value iterator for output.
+	 */
+	public Iterator<E> postOrderIterator() {
+
+		return (new ValueIterator(Order.POST));
+
+	}
+
+	/**
+	 * Method that splits the level order walk into ranges of slots.
+	 * 
+	 * @return spliterator for output.
+	 */
+	@Override
+	public Spliterator<E> spliterator() {
+
+		return (new LevelOrderSpliterator(0, this.capacity()));
+
+	}
+
+	/**
+	 * Method that streams values in level order.
+	 * 
+	 * @return stream for output.
+	 */
+	public Stream<E> stream() {
+
+		return (StreamSupport.stream(spliterator(), false));
+
+	}
+
+	/**
+	 * Method that streams values in level order across threads.
+	 * 
+	 * @return parallel stream for output.
+	 */
+	public Stream<E> parallelStream() {
+
+		return (StreamSupport.stream(spliterator(), true));
+
+	}
+
+	/**
+	 * Static method that builds a tree from values given in level order.
+	 * A null value means that slot has no node.
+	 * The values are read once, storage grows by doubling while reading and is
+	 * trimmed to a perfect tree at the end, and the levels are worked out from
+	 * the index as it goes.
+	 * Values that set() would reject (no parent or already in tree) are skipped
+	 * the same way set() would skip them.
+	 * 
+	 * @param <E>    for use of generics.
+	 * @param k      for input.
+	 * @param values for input.
+	 * @return tree for output.
+	 * @throws IllegalArgumentException if the perfect tree holding the values is
+	 *                                  too big for an array.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <E> ThreeTenKTree<E> fromLevelOrder(int k, Iterator<? extends E> values) {
+
+		E[] buffer = (E[]) new Object[16];
+
+		int numValues = 0;
+
+		while (values.hasNext()) {
+
+			if (numValues == buffer.length) {
+
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+
+			}
+
+			buffer[numValues] = values.next();
+
+			numValues++;
+
+		}
+
+		ThreeTenKTree<E> tree = new ThreeTenKTree<>(0, k);
 
-		Integer i = indexMap.get(value);
+		tree.indexMap = new ThreeTenHashTable<>(numValues * 2 + 1);
 
-		if (i == null) {
+		int level = 0;
 
-			return (null);
+		long levelStart = 0;
 
-		}
+		long levelSize = 1;
 
-		for (int j = 0; j < branchK; j++) {
+		int lastIndex = -1;
 
-			int childIndex = j + i * branchK + 1;
+		for (int i = 0; i < numValues; i++) {
 
-			if (childIndex >= capacity()) {
+			if (i == levelStart + levelSize) {
 
-				continue;
+				levelStart += levelSize;
+
+				levelSize *= k;
+
+				level++;
 
 			}
 
-			if (storage[childIndex] != null) {
+			E value = buffer[i];
 
-				if (!sb.toString().isEmpty()) {
+			if (value == null) {
 
-					sb.append(" ");
+				continue;
 
-				}
+			}
+
+			boolean hasParent = (i == 0 || buffer[(i - 1) / k] != null);
+
+			if (!hasParent || tree.indexMap.get(value) != null) {
+
+				buffer[i] = null;
 
-				sb.append(storage[childIndex].toString());
+				continue;
 
 			}
 
+			tree.indexMap.put(value, i);
+
+			tree.setLevelCount(level, tree.levelCount(level) + 1);
+
+			tree.treeHeight = level;
+
+			lastIndex = i;
+
 		}
 
-		return (sb.toString());
+		long needed = Math.max(perfectSize(k, tree.treeHeight), 1);
+
+		if (needed > MAX_STORAGE_LENGTH) {
+
+			throw new IllegalArgumentException("height " + tree.treeHeight + " is too large for branch " + k);
+
+		}
+
+		int length = (int) needed;
+
+		// every slot past lastIndex is null, so truncating loses no nodes
+		tree.storage = Arrays.copyOf(buffer, length);
+
+		tree.storageLength = length;
+
+		return (tree);
 
 	}
 
 	/**
-	 * Method that determines if value is in tree or not.
+	 * Static method that constructs the corresponding irst-child-next-sibling tree.
+	 * The tree is built one level at a time, so deep trees do not use up the
+	 * call stack.
 	 * 
-	 * @param value for input.
-	 * @return true or false for output.
+	 * @param <E>   for use of generics.
+	 * @param ktree for input.
+	 * @return root node for output.
 	 */
-	public boolean has(E value) {
+	public static <E> FcnsTreeNode<E> createFcnsTree(ThreeTenKTree<E> ktree) {
 
-		if (this.indexMap.get(value) != null) {
+		if (ktree.get(0) == null) {
 
-			return (true);
+			return (null);
 
 		}
 
-		return (false);
+		return (ktree.buildFcns(0, Integer.MAX_VALUE, null));
+	}
+
+	/**
+	 * Static method that constructs the first-child-next-sibling tree using the
+	 * common fork/join pool.
+	 * 
+	 * @param <E>   for use of generics.
+	 * @param ktree for input.
+	 * @return root node for output.
+	 */
+	public static <E> FcnsTreeNode<E> createFcnsTreeParallel(ThreeTenKTree<E> ktree) {
+
+		return (createFcnsTreeParallel(ktree, ForkJoinPool.commonPool()));
 
 	}
 
 	/**
-	 * Method that determines if value is in a leaf node of tree or not.
+	 * Static method that constructs the first-child-next-sibling tree using the
+	 * given fork/join pool.
+	 * The top levels are built first, down to the first level with several
+	 * nodes per worker. The subtrees under that level are built as separate
+	 * tasks and then hung under their parents in index order.
+	 * Small trees and trees with branch 1 are built on the calling thread.
 	 * 
-	 * @param value for input.
-	 * @return true or false for output.
+	 * @param <E>   for use of generics.
+	 * @param ktree for input.
+	 * @param pool  for input.
+	 * @return root node for output.
 	 */
-	public boolean isLeaf(E value) {
+	@SuppressWarnings("unchecked")
+	public static <E> FcnsTreeNode<E> createFcnsTreeParallel(ThreeTenKTree<E> ktree, ForkJoinPool pool) {
 
-		Integer index = indexMap.get(value);
+		int k = ktree.getBranch();
 
-		if (index == null) {
+		if (k == 1 || ktree.size() < PARALLEL_THRESHOLD || ktree.height() < 1) {
 
-			return (false);
+			return (createFcnsTree(ktree));
 
 		}
 
-		boolean childPresent = false;
+		int splitDepth = 1;
 
-		for (int i = 0; i < branchK; i++) {
+		long width = k;
 
-			int childIndex = branchK * index + i + 1;
+		while (width < 8L * pool.getParallelism() && splitDepth < ktree.height()) {
 
-			if (childIndex >= capacity()) {
+			width *= k;
 
-				break;
+			splitDepth++;
 
-			}
+		}
 
-			if (this.storage[childIndex] != null) {
+		FcnsLevel<E> top = new FcnsLevel<>();
 
-				childPresent = true;
+		FcnsTreeNode<E> root = ktree.buildFcns(0, splitDepth - 1, top);
 
-				break;
+		ktree.buildLevelIndex();
 
-			}
+		int first = (int) ktree.levelStarts[splitDepth];
 
-		}
+		int last = (int) Math.min(first + ktree.levelPowers[splitDepth] - 1, ktree.capacity() - 1L);
 
-		if (childPresent == true) {
+		FcnsLevel<E> split = new FcnsLevel<>();
 
-			return (false);
+		for (int i = ktree.nextOccupied(first, last); i >= 0; i = ktree.nextOccupied(i + 1, last)) {
+
+			split.add(i, null);
 
 		}
 
-		return (true);
+		pool.invoke(new FcnsSubtreeTask<>(ktree, split, 0, split.count));
+
+		top.attachChildren(split, k);
+
+		return (root);
 
 	}
 
 	/**
-	 * Method that removes value from tree if value is in a leaf node.
+	 * Smallest tree that createFcnsTreeParallel will split across threads.
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 14;
+
+	/**
+	 * Private class for one level of a first-child-next-sibling build: node
+	 * indices in ascending order with the nodes made for them.
 	 * 
-	 * @param value for input.
-	 * @return true or false for output.
+	 * @param <E> for use of generics.
 	 */
-	public boolean remove(E value) {
+	private static class FcnsLevel<E> {
+
+		/**
+		 * Private variable for the k-ary tree indices.
+		 */
+		private int[] indices = new int[16];
+
+		/**
+		 * Private variable for the nodes made for those indices.
+		 */
+		private FcnsTreeNode<E>[] nodes = newNodeArray(16);
+
+		/**
+		 * Private variable for the number of entries in use.
+		 */
+		private int count;
+
+		/**
+		 * Private static method that makes an empty node array.
+		 * 
+		 * @param <T>    for use of generics.
+		 * @param length for input.
+		 * @return array for output.
+		 */
+		@SuppressWarnings("unchecked")
+		private static <T> FcnsTreeNode<T>[] newNodeArray(int length) {
+
+			return ((FcnsTreeNode<T>[]) new FcnsTreeNode<?>[length]);
 
-		Integer index = indexMap.get(value);
+		}
 
-		if (index == null) {
+		/**
+		 * Method that appends an entry, growing the arrays by doubling.
+		 * 
+		 * @param index for input.
+		 * @param node  for input.
+		 */
+		void add(int index, FcnsTreeNode<E> node) {
 
-			return (false);
+			if (count == indices.length) {
+
+				indices = Arrays.copyOf(indices, count * 2);
+
+				nodes = Arrays.copyOf(nodes, count * 2);
+
+			}
+
+			indices[count] = index;
+
+			nodes[count] = node;
+
+			count++;
 
 		}
 
-		return (set(index, null));
+		/**
+		 * Method that empties the level while keeping its arrays.
+		 */
+		void clear() {
+
+			Arrays.fill(nodes, 0, count, null);
+
+			count = 0;
+
+		}
+
+		/**
+		 * Method that hangs each node of the next level under its parent in this
+		 * level. Both levels are in ascending index order, so one pass over each
+		 * is enough.
+		 * 
+		 * @param children for input.
+		 * @param k        for input.
+		 */
+		void attachChildren(FcnsLevel<E> children, int k) {
+
+			int parentPos = 0;
+
+			FcnsTreeNode<E> lastChild = null;
+
+			for (int c = 0; c < children.count; c++) {
+
+				int parent = (children.indices[c] - 1) / k;
+
+				if (indices[parentPos] != parent) {
+
+					while (indices[parentPos] != parent) {
+
+						parentPos++;
+
+					}
+
+					lastChild = null;
+
+				}
+
+				if (lastChild == null) {
+
+					nodes[parentPos].setChild(children.nodes[c]);
+
+				}
+
+				else {
+
+					lastChild.setSibling(children.nodes[c]);
+
+				}
+
+				lastChild = children.nodes[c];
+
+			}
+
+		}
 
 	}
 
 	/**
-	 * Static method that constructs the corresponding irst-child-next-sibling tree.
+	 * Private class for building the subtrees under a range of split-level
+	 * nodes, halving the range until it is one node.
 	 * 
-	 * @param <E>   for use of generics.
-	 * @param ktree for input.
-	 * @return root node for output.
+	 * @param <E> for use of generics.
 	 */
-	public static <E> FcnsTreeNode<E> createFcnsTree(ThreeTenKTree<E> ktree) {
+	private static class FcnsSubtreeTask<E> extends RecursiveAction {
+
+		/**
+		 * Serial version for RecursiveAction.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Private variable for the tree being converted.
+		 */
+		private final ThreeTenKTree<E> ktree;
+
+		/**
+		 * Private variable for the split level, whose nodes are filled in.
+		 */
+		private final FcnsLevel<E> split;
+
+		/**
+		 * Private variable for the first entry of the range.
+		 */
+		private final int from;
+
+		/**
+		 * Private variable for the entry after the range.
+		 */
+		private final int to;
+
+		/**
+		 * Method to initialize FcnsSubtreeTask.
+		 * 
+		 * @param ktree for input.
+		 * @param split for input.
+		 * @param from  for input.
+		 * @param to    for input.
+		 */
+		FcnsSubtreeTask(ThreeTenKTree<E> ktree, FcnsLevel<E> split, int from, int to) {
+
+			this.ktree = ktree;
+
+			this.split = split;
+
+			this.from = from;
+
+			this.to = to;
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+
+			if (to - from <= 0) {
+
+				return;
+
+			}
+
+			if (to - from == 1) {
+
+				split.nodes[from] = ktree.buildFcns(split.indices[from], Integer.MAX_VALUE, null);
+
+				return;
+
+			}
+
+			int mid = (from + to) / 2;
+
+			invokeAll(new FcnsSubtreeTask<>(ktree, split, from, mid), new FcnsSubtreeTask<>(ktree, split, mid, to));
+
+		}
 
-		return constructFcnsTree(ktree, 0);
 	}
 
 	/**
-	 * Private method that helps with before method.
+	 * Private method that builds the first-child-next-sibling tree under root
+	 * one level at a time. Each level is a range of indices; empty stretches
+	 * are skipped with nextOccupied, bounded by the end of the level.
 	 * 
-	 * @param <E>   for use of generics.
-	 * @param ktree for input.
-	 * @param index for input.
-	 * @return node or null for output.
+	 * @param root      for input.
+	 * @param maxLevels for input, number of levels below root to build.
+	 * @param lastLevel for input, receives the deepest level built, may be
+	 *                  null.
+	 * @return root node for output.
 	 */
-	private static <E> FcnsTreeNode<E> constructFcnsTree(ThreeTenKTree<E> ktree, int index) {
+	private FcnsTreeNode<E> buildFcns(int root, int maxLevels, FcnsLevel<E> lastLevel) {
 
-		if (index >= ktree.capacity() || ktree.get(index) == null) {
+		FcnsTreeNode<E> rootNode = new FcnsTreeNode<>(slot(root));
 
-			return (null);
+		FcnsLevel<E> parents = new FcnsLevel<>();
 
-		}
+		FcnsLevel<E> children = new FcnsLevel<>();
 
-		FcnsTreeNode<E> fcnsNode = new FcnsTreeNode<>(ktree.get(index));
+		parents.add(root, rootNode);
 
-		FcnsTreeNode<E> tempChild = null;
+		long first = root;
 
-		FcnsTreeNode<E> currentChild = null;
+		long last = root;
 
-		for (int i = 0; i < ktree.getBranch(); i++) {
+		for (int level = 0; level < maxLevels; level++) {
 
-			FcnsTreeNode<E> childNode = constructFcnsTree(ktree, index * ktree.getBranch() + i + 1);
+			first = first * branchK + 1;
 
-			if (childNode == null) {
+			last = last * branchK + branchK;
 
-				continue;
+			if (first >= this.capacity()) {
+
+				break;
 
 			}
 
-			if (currentChild == null) {
+			int end = (int) Math.min(last, this.capacity() - 1L);
 
-				tempChild = childNode;
+			children.clear();
 
-				currentChild = tempChild;
+			for (int i = nextOccupied((int) first, end); i >= 0; i = nextOccupied(i + 1, end)) {
+
+				children.add(i, new FcnsTreeNode<>(slot(i)));
 
 			}
 
-			else {
+			if (children.count == 0) {
 
-				currentChild.setSibling(childNode);
+				break;
+
+			}
+
+			parents.attachChildren(children, branchK);
+
+			FcnsLevel<E> swap = parents;
+
+			parents = children;
+
+			children = swap;
+
+		}
+
+		if (lastLevel != null) {
 
-				currentChild = childNode;
+			for (int i = 0; i < parents.count; i++) {
+
+				lastLevel.add(parents.indices[i], parents.nodes[i]);
 
 			}
 
 		}
 
-		fcnsNode.setChild(tempChild);
+		return (rootNode);
 
-		return (fcnsNode);
 	}
 
 	/**
@@ -683,6 +2459,162 @@ public class ThreeTenKTree<E> {
 			System.out.println("Yay8");
 
 		}
+
+		ThreeTenKTree<String> t2 = ThreeTenKTree.fromLevelOrder(3,
+				Arrays.asList("A", "B", null, "D", "E", null, null, "X", null, null, "G", "A").iterator());
+
+		if (t2.size() == 5 && t2.height() == 2 && t2.capacity() == 13 && !t2.has("X")
+				&& t2.toStringLevelOrder().equals("A B D E G")) {
+			System.out.println("Yay9");
+
+		}
+
+		ThreeTenKTree<Integer> deep = new ThreeTenKTree<>(1, 10);
+		int deepIndex = 0;
+		deep.set(0, 0);
+		for (int h = 1; h <= 8; h++) {
+			deepIndex = deepIndex * 10 + 1;
+			deep.set(deepIndex, h);
+		}
+
+		if (deep.isSparse() && deep.height() == 8 && deep.capacity() == 111111111
+				&& deep.get(11111111) == 8 && deep.get(11111112) == null
+				&& deep.getAncestors(3).equals("0-->1-->2-->3") && deep.toStringLevelOrder().equals("0 1 2 3 4 5 6 7 8")
+				&& deep.remove(8) && !deep.has(8)) {
+			System.out.println("Yay10");
+
+		}
+
+		int[] buf = new int[8];
+
+		if (t.depth(11) == 3 && t.ancestorIndices(11, buf) == 4 && buf[0] == 0 && buf[1] == 2 && buf[3] == 11
+				&& t.isAncestor(2, 11) && t.isAncestor(0, 5) && !t.isAncestor(11, 11) && !t.isAncestor(2, 0)
+				&& t.lowestCommonAncestor(11, 5) == 5 && t.lowestCommonAncestor(11, 1) == null
+				&& t.subtreeSize(2) == 3 && t.subtreeSize(0) == 4 && t.getAncestors(11).equals("0-->2-->5-->11")) {
+			System.out.println("Yay11");
+
+		}
+
+		ThreeTenKTree<Integer> t3 = new ThreeTenKTree<>(1, 3);
+
+		if (t3.depthOf(0) == 0 && t3.depthOf(3) == 1 && t3.depthOf(4) == 2 && t3.depthOf(13) == 3
+				&& t3.levelAncestor(40, 1) == 1 && t3.levelAncestor(40, 2) == 4 && t3.levelAncestor(5, 3) == -1
+				&& t3.lowestCommonAncestorIndex(13, 16) == 1 && t3.lowestCommonAncestorIndex(13, 39) == 0
+				&& t3.lowestCommonAncestorIndex(40, 4) == 4 && t3.lowestCommonAncestorIndex(1000000, 1000001) == 333333) {
+			System.out.println("Yay12");
+
+		}
+
+		ThreeTenKTree<Integer> t4 = ThreeTenKTree.fromLevelOrder(2,
+				Arrays.asList(0, 1, 2, 3, 4, 5, 6, null, null, 9, 10, null, null, 13, 14).iterator());
+
+		if (t4.removeSubtree(1) == 5 && !t4.has(10) && t4.size() == 6 && t4.height() == 3 && t4.capacity() == 15
+				&& t4.removeAll(Arrays.asList(13, 5, 99, 14)) == 3 && t4.height() == 2 && t4.capacity() == 7
+				&& t4.toString().equals("0\nnull 2\nnull null null 6") && t4.set(11, 11) == false
+				&& t4.set(14, 14) && t4.height() == 3 && t4.capacity() == 15 && t4.removeSubtree(0) == 4
+				&& t4.size() == 0 && t4.height() == -1 && t4.capacity() == 1) {
+			System.out.println("Yay13");
+
+		}
+
+		ThreeTenKTree<Integer> t5 = ThreeTenKTree.fromLevelOrder(3,
+				Arrays.asList(0, 1, null, 3, 4, 5, null, null, null, null, 10, null, 12).iterator());
+		StringBuilder order = new StringBuilder();
+		for (Iterator<Integer> it = t5.preOrderIterator(); it.hasNext();) {
+			order.append(it.next()).append(" ");
+		}
+		order.append("| ");
+		for (PrimitiveIterator.OfInt it = t5.postOrderIndices(); it.hasNext();) {
+			order.append(it.nextInt()).append(" ");
+		}
+		order.append("| ");
+		for (Integer v : t5) {
+			order.append(v).append(" ");
+		}
+
+		if (order.toString().equals("0 1 4 5 3 10 12 | 4 5 1 10 12 3 0 | 0 1 3 4 5 10 12 ")
+				&& t5.parallelStream().mapToInt(Integer::intValue).sum() == 35) {
+			System.out.println("Yay14");
+
+		}
+
+		if (ThreeTenKTree.createFcnsTreeParallel(t5).equals(ThreeTenKTree.createFcnsTree(t5))
+				&& ThreeTenKTree.createFcnsTree(t5).toStringKTreePreOrder().equals("0 1 4 5 3 10 12")) {
+			System.out.println("Yay15");
+
+		}
+
+		ThreeTenKTree<Integer> t6 = new ThreeTenKTree<>(1, 2);
+
+		t6.set(0, 0);
+
+		t6.ensureHeight(4);
+
+		boolean tooTall = false;
+
+		try {
+			t6.ensureHeight(40);
+		} catch (IllegalArgumentException e) {
+			tooTall = true;
+		}
+
+		if (tooTall && t6.capacity() == 1 && t6.height() == 0 && t6.set(1, 1) && t6.set(4, 4) && t6.set(9, 9)
+				&& t6.set(19, 19) && t6.capacity() == 31 && t6.height() == 4) {
+			System.out.println("Yay16");
+
+		}
+
+		int bigSize = 60000;
+		List<Integer> bigValues = new ArrayList<>();
+		for (int i = 0; i < bigSize; i++) {
+			bigValues.add(i > 40000 && i % 5 == 0 ? null : i);
+		}
+		ThreeTenKTree<Integer> big = ThreeTenKTree.fromLevelOrder(3, bigValues.iterator());
+		ForkJoinPool bigPool = new ForkJoinPool(4);
+
+		if (big.size() > PARALLEL_THRESHOLD
+				&& ThreeTenKTree.createFcnsTreeParallel(big, bigPool).equals(ThreeTenKTree.createFcnsTree(big))
+				&& ThreeTenKTree.createFcnsTreeParallel(big, bigPool).size() == big.size()) {
+			System.out.println("Yay17");
+
+		}
+
+		bigPool.shutdown();
+
+		int rejected = 0;
+
+		for (ThreeTenKTree<Integer> tree : Arrays.asList(t, t3, new ThreeTenKTree<Integer>(3, 1))) {
+
+			try {
+
+				tree.depthOf(-1);
+
+			}
+
+			catch (IndexOutOfBoundsException e) {
+
+				rejected++;
+
+			}
+
+			try {
+
+				tree.ancestorIndices(Integer.MIN_VALUE, buf);
+
+			}
+
+			catch (IndexOutOfBoundsException e) {
+
+				rejected++;
+
+			}
+
+		}
+
+		if (rejected == 6 && t3.ancestorIndices(40).length == 5) {
+			System.out.println("Yay18");
+
+		}
 	}
 
 }
\ No newline at end of file
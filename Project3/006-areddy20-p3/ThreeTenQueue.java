@@ -0,0 +1,244 @@
+import java.util.Arrays;
+
+/**
+ * This is the ThreeTenQueue class.
+ * It is a first-in-first-out queue kept in a circular array that doubles
+ * when full, so enqueue does not allocate a node per item. clear() keeps the
+ * array so one queue can be reused across many traversals.
+ * 
+ * @param <T> for use of generics.
+ * @author Aditi Reddy.
+ */
+public class ThreeTenQueue<T> {
+
+	/**
+	 * Private variable for the underlying circular array.
+	 */
+	private Object[] items;
+
+	/**
+	 * Private variable for the slot of the front item.
+	 */
+	private int front;
+
+	/**
+	 * Private variable for the number of items.
+	 */
+	private int numItems;
+
+	/**
+	 * Constructor that creates an empty queue with room for initCapacity items.
+	 * 
+	 * @param initCapacity for input.
+	 */
+	public ThreeTenQueue(int initCapacity) {
+
+		this.items = new Object[Math.max(initCapacity, 1)];
+
+		this.front = 0;
+
+		this.numItems = 0;
+
+	}
+
+	/**
+	 * Constructor that creates an empty queue with a default capacity.
+	 */
+	public ThreeTenQueue() {
+
+		this(16);
+
+	}
+
+	/**
+	 * Method that checks if the queue is empty.
+	 * 
+	 * @return true or false for output.
+	 */
+	public boolean isEmpty() {
+
+		return (this.numItems == 0);
+
+	}
+
+	/**
+	 * Method that reports the number of items in the queue.
+	 * 
+	 * @return size for output.
+	 */
+	public int size() {
+
+		return (this.numItems);
+
+	}
+
+	/**
+	 * Method that reports how many items fit before the array grows.
+	 * 
+	 * @return capacity for output.
+	 */
+	public int capacity() {
+
+		return (this.items.length);
+
+	}
+
+	/**
+	 * Method that adds an item to the back of the queue.
+	 * 
+	 * @param item for input.
+	 */
+	public void enqueue(T item) {
+
+		if (this.numItems == this.items.length) {
+
+			grow();
+
+		}
+
+		int back = this.front + this.numItems;
+
+		if (back >= this.items.length) {
+
+			back -= this.items.length;
+
+		}
+
+		this.items[back] = item;
+
+		this.numItems++;
+
+	}
+
+	/**
+	 * Method that removes the item at the front of the queue.
+	 * If no items remain, null is returned.
+	 * 
+	 * @return item or null for output.
+	 */
+	@SuppressWarnings("unchecked")
+	public T dequeue() {
+
+		if (this.numItems == 0) {
+
+			return (null);
+
+		}
+
+		T item = (T) this.items[this.front];
+
+		this.items[this.front] = null;
+
+		this.front++;
+
+		if (this.front == this.items.length) {
+
+			this.front = 0;
+
+		}
+
+		this.numItems--;
+
+		return (item);
+
+	}
+
+	/**
+	 * Method that returns the item at the front of the queue.
+	 * If no items remain, null is returned.
+	 * 
+	 * @return item or null for output.
+	 */
+	@SuppressWarnings("unchecked")
+	public T peek() {
+
+		if (this.numItems == 0) {
+
+			return (null);
+
+		}
+
+		return ((T) this.items[this.front]);
+
+	}
+
+	/**
+	 * Method that removes every item but keeps the array for reuse.
+	 */
+	public void clear() {
+
+		int end = this.front + this.numItems;
+
+		if (end <= this.items.length) {
+
+			Arrays.fill(this.items, this.front, end, null);
+
+		}
+
+		else {
+
+			Arrays.fill(this.items, this.front, this.items.length, null);
+
+			Arrays.fill(this.items, 0, end - this.items.length, null);
+
+		}
+
+		this.front = 0;
+
+		this.numItems = 0;
+
+	}
+
+	/**
+	 * Private method that doubles the array and lines the items up from slot 0.
+	 */
+	private void grow() {
+
+		Object[] bigger = new Object[this.items.length * 2];
+
+		int firstPart = this.items.length - this.front;
+
+		System.arraycopy(this.items, this.front, bigger, 0, firstPart);
+
+		System.arraycopy(this.items, 0, bigger, firstPart, this.front);
+
+		this.items = bigger;
+
+		this.front = 0;
+
+	}
+
+	/**
+	 * Main method for testing.
+	 * 
+	 * @param args for input.
+	 */
+	public static void main(String[] args) {
+
+		ThreeTenQueue<Integer> q = new ThreeTenQueue<>(2);
+
+		q.enqueue(1);
+		q.enqueue(2);
+
+		if (q.dequeue() == 1 && q.size() == 1 && q.capacity() == 2) {
+			System.out.println("Yay1");
+		}
+
+		q.enqueue(3);
+		q.enqueue(4);
+
+		if (q.capacity() == 4 && q.peek() == 2 && q.dequeue() == 2 && q.dequeue() == 3
+				&& q.dequeue() == 4 && q.dequeue() == null && q.isEmpty()) {
+			System.out.println("Yay2");
+		}
+
+		q.enqueue(5);
+		q.clear();
+
+		if (q.isEmpty() && q.capacity() == 4 && q.dequeue() == null) {
+			System.out.println("Yay3");
+		}
+
+	}
+
+}
@@ -0,0 +1,522 @@
+import java.util.Arrays;
+
+/**
+ * This is the BreadthFirstSearch class.
+ * It answers hop-count questions over an IntGraph: distances and BFS tree
+ * parents from one source, the set of vertices reachable from a source, and
+ * the hop distance between two vertices by searching from both ends at once.
+ * Queues and marks are kept between calls, and the two-ended search uses
+ * stamped marks so it never clears whole arrays.
+ *
+ * @author Aditi Reddy.
+ */
+class BreadthFirstSearch {
+
+	/**
+	 * Private variable for the graph being searched.
+	 */
+	private final IntGraph graph;
+
+	/**
+	 * Private variable for the hop distance of each vertex from the last source.
+	 */
+	private int[] distance;
+
+	/**
+	 * Private variable for the BFS tree parent of each vertex.
+	 */
+	private int[] parent;
+
+	/**
+	 * Private variable for the vertices reached from the last source.
+	 */
+	private long[] reached;
+
+	/**
+	 * Private variable for the forward queue.
+	 */
+	private int[] queue;
+
+	/**
+	 * Private variable for the backward queue.
+	 */
+	private int[] backQueue;
+
+	/**
+	 * Private variable for the forward marks of the two-ended search.
+	 */
+	private int[] forwardMark;
+
+	/**
+	 * Private variable for the backward marks of the two-ended search.
+	 */
+	private int[] backwardMark;
+
+	/**
+	 * Private variable for the forward distances of the two-ended search.
+	 */
+	private int[] forwardDistance;
+
+	/**
+	 * Private variable for the backward distances of the two-ended search.
+	 */
+	private int[] backwardDistance;
+
+	/**
+	 * Private variable for the stamp of the current two-ended search.
+	 */
+	private int stamp;
+
+	/**
+	 * Private variable for the scratch buffer neighbors are copied through.
+	 */
+	private int[] neighbors;
+
+	/**
+	 * Constructor for a search over graph.
+	 *
+	 * @param graph for input.
+	 */
+	BreadthFirstSearch(IntGraph graph) {
+
+		this.graph = graph;
+
+		this.distance = new int[0];
+
+		this.parent = new int[0];
+
+		this.reached = new long[0];
+
+		this.queue = new int[0];
+
+		this.backQueue = new int[0];
+
+		this.forwardMark = new int[0];
+
+		this.backwardMark = new int[0];
+
+		this.forwardDistance = new int[0];
+
+		this.backwardDistance = new int[0];
+
+		this.neighbors = new int[16];
+
+	}
+
+	/**
+	 * Private method that sizes the single-source arrays for the graph.
+	 */
+	private void reserve() {
+
+		int n = graph.vertexBound();
+
+		if (distance.length < n) {
+
+			this.distance = new int[n];
+
+			this.parent = new int[n];
+
+			this.reached = new long[(n + 63) >>> 6];
+
+			this.queue = new int[n];
+
+		}
+
+	}
+
+	/**
+	 * Private method that copies the successors or predecessors of index into
+	 * the scratch buffer, growing it if needed.
+	 *
+	 * @param index   for input.
+	 * @param forward for input.
+	 * @return number of neighbors for output.
+	 */
+	private int loadNeighbors(int index, boolean forward) {
+
+		int degree = forward ? graph.successorIds(index, neighbors) : graph.predecessorIds(index, neighbors);
+
+		if (degree > neighbors.length) {
+
+			this.neighbors = new int[Math.max(degree, neighbors.length * 2)];
+
+			if (forward) {
+
+				graph.successorIds(index, neighbors);
+
+			}
+
+			else {
+
+				graph.predecessorIds(index, neighbors);
+
+			}
+
+		}
+
+		return (degree);
+
+	}
+
+	/**
+	 * Method that finds the hop distance and BFS parent of every vertex
+	 * reachable from source.
+	 *
+	 * @param source for input.
+	 * @return number of vertices reached for output.
+	 */
+	int run(int source) {
+
+		reserve();
+
+		Arrays.fill(distance, -1);
+
+		Arrays.fill(parent, -1);
+
+		Arrays.fill(reached, 0L);
+
+		if (graph.vertexAt(source) == null) {
+
+			return (0);
+
+		}
+
+		int head = 0;
+
+		int tail = 0;
+
+		queue[tail++] = source;
+
+		distance[source] = 0;
+
+		reached[source >>> 6] |= 1L << source;
+
+		while (head < tail) {
+
+			int u = queue[head++];
+
+			int degree = loadNeighbors(u, true);
+
+			for (int i = 0; i < degree; i++) {
+
+				int w = neighbors[i];
+
+				if (distance[w] < 0) {
+
+					distance[w] = distance[u] + 1;
+
+					parent[w] = u;
+
+					reached[w >>> 6] |= 1L << w;
+
+					queue[tail++] = w;
+
+				}
+
+			}
+
+		}
+
+		return (tail);
+
+	}
+
+	/**
+	 * Method that reports the hop distance of index from the last source.
+	 *
+	 * @param index for input.
+	 * @return distance, or -1 if unreached, for output.
+	 */
+	int distance(int index) {
+
+		if (index < 0 || index >= distance.length) {
+
+			return (-1);
+
+		}
+
+		return (distance[index]);
+
+	}
+
+	/**
+	 * Method that reports the BFS tree parent of index.
+	 *
+	 * @param index for input.
+	 * @return parent, or -1 for the source and unreached vertices, for output.
+	 */
+	int parent(int index) {
+
+		if (index < 0 || index >= parent.length) {
+
+			return (-1);
+
+		}
+
+		return (parent[index]);
+
+	}
+
+	/**
+	 * Method that returns the distances of the last run, -1 for unreached.
+	 *
+	 * @return distances for output.
+	 */
+	int[] distances() {
+
+		return (Arrays.copyOf(distance, graph.vertexBound()));
+
+	}
+
+	/**
+	 * Method that returns the BFS tree parents of the last run.
+	 *
+	 * @return parents for output.
+	 */
+	int[] parents() {
+
+		return (Arrays.copyOf(parent, graph.vertexBound()));
+
+	}
+
+	/**
+	 * Method that finds every vertex reachable from source, as a bitset where
+	 * bit i of word i / 64 is set when index i is reachable.
+	 *
+	 * @param source for input.
+	 * @return reachable set for output.
+	 */
+	long[] reachable(int source) {
+
+		run(source);
+
+		return (Arrays.copyOf(reached, (graph.vertexBound() + 63) >>> 6));
+
+	}
+
+	/**
+	 * Method that finds the number of edges on a shortest path from source to
+	 * target. Both ends are searched one whole level at a time, always growing
+	 * the smaller frontier, and the best meeting found in a level is the
+	 * answer.
+	 *
+	 * @param source for input.
+	 * @param target for input.
+	 * @return hop distance, or -1 if target is unreachable, for output.
+	 */
+	int hopDistance(int source, int target) {
+
+		if (graph.vertexAt(source) == null || graph.vertexAt(target) == null) {
+
+			return (-1);
+
+		}
+
+		if (source == target) {
+
+			return (0);
+
+		}
+
+		int n = graph.vertexBound();
+
+		if (forwardMark.length < n) {
+
+			this.forwardMark = Arrays.copyOf(forwardMark, n);
+
+			this.backwardMark = Arrays.copyOf(backwardMark, n);
+
+			this.forwardDistance = new int[n];
+
+			this.backwardDistance = new int[n];
+
+			this.backQueue = new int[n];
+
+		}
+
+		if (queue.length < n) {
+
+			this.queue = new int[n];
+
+		}
+
+		this.stamp++;
+
+		if (stamp == 0) {
+
+			Arrays.fill(forwardMark, 0);
+
+			Arrays.fill(backwardMark, 0);
+
+			this.stamp = 1;
+
+		}
+
+		int fHead = 0;
+
+		int fTail = 0;
+
+		int bHead = 0;
+
+		int bTail = 0;
+
+		queue[fTail++] = source;
+
+		forwardMark[source] = stamp;
+
+		forwardDistance[source] = 0;
+
+		backQueue[bTail++] = target;
+
+		backwardMark[target] = stamp;
+
+		backwardDistance[target] = 0;
+
+		int best = Integer.MAX_VALUE;
+
+		while (fHead < fTail && bHead < bTail) {
+
+			boolean forward = fTail - fHead <= bTail - bHead;
+
+			int[] q = forward ? queue : backQueue;
+
+			int[] mark = forward ? forwardMark : backwardMark;
+
+			int[] dist = forward ? forwardDistance : backwardDistance;
+
+			int[] otherMark = forward ? backwardMark : forwardMark;
+
+			int[] otherDist = forward ? backwardDistance : forwardDistance;
+
+			int head = forward ? fHead : bHead;
+
+			int tail = forward ? fTail : bTail;
+
+			int levelEnd = tail;
+
+			while (head < levelEnd) {
+
+				int u = q[head++];
+
+				int degree = loadNeighbors(u, forward);
+
+				for (int i = 0; i < degree; i++) {
+
+					int w = neighbors[i];
+
+					if (otherMark[w] == stamp) {
+
+						best = Math.min(best, dist[u] + 1 + otherDist[w]);
+
+					}
+
+					if (mark[w] != stamp) {
+
+						mark[w] = stamp;
+
+						dist[w] = dist[u] + 1;
+
+						q[tail++] = w;
+
+					}
+
+				}
+
+			}
+
+			if (forward) {
+
+				fHead = head;
+
+				fTail = tail;
+
+			}
+
+			else {
+
+				bHead = head;
+
+				bTail = tail;
+
+			}
+
+			if (best != Integer.MAX_VALUE) {
+
+				return (best);
+
+			}
+
+		}
+
+		return (-1);
+
+	}
+
+	/**
+	 * Main method for testing.
+	 *
+	 * @param args for input.
+	 */
+	public static void main(String[] args) {
+
+		ThreeTenGraph graph = new ThreeTenGraph();
+
+		GraphNode[] nodes = new GraphNode[8];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode(i);
+			graph.addVertex(nodes[i]);
+		}
+
+		int[][] pairs = { { 0, 1 }, { 0, 2 }, { 1, 3 }, { 2, 3 }, { 3, 4 }, { 4, 5 }, { 2, 5 }, { 6, 0 } };
+
+		for (int i = 0; i < pairs.length; i++) {
+			graph.addEdge(new GraphEdge(i), nodes[pairs[i][0]], nodes[pairs[i][1]]);
+		}
+
+		BreadthFirstSearch bfs = new BreadthFirstSearch(graph);
+
+		if (bfs.run(0) == 6 && bfs.distance(5) == 2 && bfs.parent(5) == 2 && bfs.distance(4) == 3
+				&& bfs.parent(0) == -1 && bfs.distance(6) == -1 && bfs.distances()[3] == 2) {
+			System.out.println("Yay 1");
+		}
+
+		long[] reach = bfs.reachable(3);
+
+		if (reach[0] == 0b111000L && bfs.hopDistance(6, 5) == 3 && bfs.hopDistance(5, 6) == -1
+				&& bfs.hopDistance(1, 1) == 0 && bfs.hopDistance(6, 4) == 4 && bfs.hopDistance(7, 0) == -1) {
+			System.out.println("Yay 2");
+		}
+
+		ThreeTenCsrGraph grid = new ThreeTenCsrGraph();
+
+		int side = 1000;
+
+		for (int i = 0; i < side * side; i++) {
+			grid.addVertex(new GraphNode(i));
+		}
+
+		int edgeId = 0;
+
+		for (int r = 0; r < side; r++) {
+			for (int c = 0; c < side; c++) {
+				GraphNode here = grid.vertexAt(r * side + c);
+				if (c + 1 < side) {
+					grid.addEdge(new GraphEdge(edgeId++), here, grid.vertexAt(r * side + c + 1));
+				}
+				if (r + 1 < side) {
+					grid.addEdge(new GraphEdge(edgeId++), here, grid.vertexAt((r + 1) * side + c));
+				}
+			}
+		}
+
+		bfs = new BreadthFirstSearch(grid);
+
+		if (bfs.hopDistance(0, side * side - 1) == 2 * (side - 1) && bfs.hopDistance(side - 1, side) == -1
+				&& bfs.run(0) == side * side && bfs.distance(side * side - 1) == 2 * (side - 1)) {
+			System.out.println("Yay 3");
+		}
+
+	}
+
+}
@@ -0,0 +1,420 @@
+import java.util.Arrays;
+
+/**
+ * This is the DepthFirstSearch class.
+ * It runs an iterative depth first search over an IntGraph and records the
+ * visit order and the discovery and finish time of every vertex. Each frame
+ * on the explicit stack holds a vertex and a cursor into a shared pool of
+ * successor indices, so long chains cannot overflow the call stack, and the
+ * scratch arrays are kept between runs.
+ *
+ * @author Aditi Reddy.
+ */
+class DepthFirstSearch {
+
+	/**
+	 * Private variable for the graph being searched.
+	 */
+	private final IntGraph graph;
+
+	/**
+	 * Private variable for the vertex indices in the order they were visited.
+	 */
+	private int[] order;
+
+	/**
+	 * Private variable for the number of visited vertices.
+	 */
+	private int visitedCount;
+
+	/**
+	 * Private variable for the discovery time of each vertex, -1 if unvisited.
+	 */
+	private int[] discovery;
+
+	/**
+	 * Private variable for the finish time of each vertex, -1 if unvisited.
+	 */
+	private int[] finish;
+
+	/**
+	 * Private variable for the visited vertices, one bit each.
+	 */
+	private long[] visited;
+
+	/**
+	 * Private variable for the clock shared by discovery and finish times.
+	 */
+	private int clock;
+
+	/**
+	 * Private variable for the vertex of each stack frame.
+	 */
+	private int[] stackVertex;
+
+	/**
+	 * Private variable for the next pool position of each stack frame.
+	 */
+	private int[] stackCursor;
+
+	/**
+	 * Private variable for the pool position where each frame's successors end.
+	 */
+	private int[] stackEnd;
+
+	/**
+	 * Private variable for the successor indices of every vertex on the stack.
+	 */
+	private int[] pool;
+
+	/**
+	 * Private variable for the scratch buffer successors are copied through.
+	 */
+	private int[] neighbors;
+
+	/**
+	 * Constructor for a search over graph.
+	 *
+	 * @param graph for input.
+	 */
+	DepthFirstSearch(IntGraph graph) {
+
+		this.graph = graph;
+
+		this.order = new int[0];
+
+		this.discovery = new int[0];
+
+		this.finish = new int[0];
+
+		this.visited = new long[0];
+
+		this.stackVertex = new int[0];
+
+		this.stackCursor = new int[0];
+
+		this.stackEnd = new int[0];
+
+		this.pool = new int[16];
+
+		this.neighbors = new int[16];
+
+	}
+
+	/**
+	 * Private method that sizes the arrays for the graph and clears them.
+	 */
+	private void reset() {
+
+		int n = graph.vertexBound();
+
+		if (order.length < n) {
+
+			this.order = new int[n];
+
+			this.discovery = new int[n];
+
+			this.finish = new int[n];
+
+			this.visited = new long[(n + 63) >>> 6];
+
+			this.stackVertex = new int[n];
+
+			this.stackCursor = new int[n];
+
+			this.stackEnd = new int[n];
+
+		}
+
+		else {
+
+			Arrays.fill(visited, 0L);
+
+		}
+
+		Arrays.fill(discovery, -1);
+
+		Arrays.fill(finish, -1);
+
+		this.visitedCount = 0;
+
+		this.clock = 0;
+
+	}
+
+	/**
+	 * Method that searches the whole graph, starting a new tree at every
+	 * unvisited vertex in index order.
+	 *
+	 * @return the visit order for output.
+	 */
+	int[] run() {
+
+		reset();
+
+		int n = graph.vertexBound();
+
+		for (int s = 0; s < n; s++) {
+
+			if (graph.vertexAt(s) != null && !isVisited(s)) {
+
+				visit(s);
+
+			}
+
+		}
+
+		return (order());
+
+	}
+
+	/**
+	 * Method that searches only the vertices reachable from source.
+	 *
+	 * @param source for input.
+	 * @return the visit order for output.
+	 */
+	int[] runFrom(int source) {
+
+		reset();
+
+		if (graph.vertexAt(source) != null) {
+
+			visit(source);
+
+		}
+
+		return (order());
+
+	}
+
+	/**
+	 * Private method that marks index visited, stamps its discovery time and
+	 * pushes a frame holding its successors.
+	 *
+	 * @param index for input.
+	 * @param top   for input.
+	 * @param start for input.
+	 * @return where the pushed frame's successors end for output.
+	 */
+	private int push(int index, int top, int start) {
+
+		visited[index >>> 6] |= 1L << index;
+
+		discovery[index] = clock++;
+
+		order[visitedCount++] = index;
+
+		int degree = graph.successorIds(index, neighbors);
+
+		if (degree > neighbors.length) {
+
+			this.neighbors = new int[Math.max(degree, neighbors.length * 2)];
+
+			graph.successorIds(index, neighbors);
+
+		}
+
+		if (start + degree > pool.length) {
+
+			this.pool = Arrays.copyOf(pool, Math.max(start + degree, pool.length * 2));
+
+		}
+
+		System.arraycopy(neighbors, 0, pool, start, degree);
+
+		stackVertex[top] = index;
+
+		stackCursor[top] = start;
+
+		stackEnd[top] = start + degree;
+
+		return (start + degree);
+
+	}
+
+	/**
+	 * Private method that runs one depth first tree from root.
+	 *
+	 * @param root for input.
+	 */
+	private void visit(int root) {
+
+		int top = 0;
+
+		push(root, 0, 0);
+
+		while (top >= 0) {
+
+			if (stackCursor[top] == stackEnd[top]) {
+
+				finish[stackVertex[top]] = clock++;
+
+				top--;
+
+				continue;
+
+			}
+
+			int w = pool[stackCursor[top]++];
+
+			if (!isVisited(w)) {
+
+				push(w, top + 1, stackEnd[top]);
+
+				top++;
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Method that reports whether index was visited by the last run.
+	 *
+	 * @param index for input.
+	 * @return true or false for output.
+	 */
+	boolean isVisited(int index) {
+
+		if (index < 0 || (index >>> 6) >= visited.length) {
+
+			return (false);
+
+		}
+
+		return ((visited[index >>> 6] & (1L << index)) != 0);
+
+	}
+
+	/**
+	 * Method that reports how many vertices the last run visited.
+	 *
+	 * @return count for output.
+	 */
+	int visitedCount() {
+
+		return (this.visitedCount);
+
+	}
+
+	/**
+	 * Method that returns the vertex indices in the order the last run visited
+	 * them.
+	 *
+	 * @return visit order for output.
+	 */
+	int[] order() {
+
+		return (Arrays.copyOf(order, visitedCount));
+
+	}
+
+	/**
+	 * Method that reports when index was discovered by the last run.
+	 *
+	 * @param index for input.
+	 * @return discovery time, or -1 if not visited, for output.
+	 */
+	int discovery(int index) {
+
+		return (isVisited(index) ? discovery[index] : -1);
+
+	}
+
+	/**
+	 * Method that reports when index was finished by the last run.
+	 * A vertex finishes after every vertex discovered below it.
+	 *
+	 * @param index for input.
+	 * @return finish time, or -1 if not visited, for output.
+	 */
+	int finish(int index) {
+
+		return (isVisited(index) ? finish[index] : -1);
+
+	}
+
+	/**
+	 * Method for toString, the GraphNode ids of the last run in visit order.
+	 *
+	 * @return string for output.
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder sb = new StringBuilder();
+
+		for (int i = 0; i < visitedCount; i++) {
+
+			if (i > 0) {
+
+				sb.append(" ");
+
+			}
+
+			sb.append(graph.vertexAt(order[i]).id);
+
+		}
+
+		return (sb.toString());
+
+	}
+
+	/**
+	 * Main method for testing.
+	 *
+	 * @param args for input.
+	 */
+	public static void main(String[] args) {
+
+		ThreeTenCsrGraph chain = new ThreeTenCsrGraph();
+
+		GraphNode previous = new GraphNode(0);
+
+		chain.addVertex(previous);
+
+		for (int i = 1; i < 1000000; i++) {
+			GraphNode next = new GraphNode(i);
+			chain.addVertex(next);
+			chain.addEdge(new GraphEdge(i), previous, next);
+			previous = next;
+		}
+
+		DepthFirstSearch dfs = new DepthFirstSearch(chain);
+
+		int[] order = dfs.run();
+
+		if (order.length == 1000000 && order[999999] == 999999 && dfs.discovery(5) == 5
+				&& dfs.finish(0) == 1999999 && dfs.finish(999999) == 1000000) {
+			System.out.println("Yay 1");
+		}
+
+		ThreeTenGraph graph = new ThreeTenGraph();
+
+		GraphNode[] nodes = new GraphNode[6];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode(i);
+			graph.addVertex(nodes[i]);
+		}
+
+		graph.addEdge(new GraphEdge(0), nodes[0], nodes[2]);
+		graph.addEdge(new GraphEdge(1), nodes[0], nodes[1]);
+		graph.addEdge(new GraphEdge(2), nodes[2], nodes[1]);
+		graph.addEdge(new GraphEdge(3), nodes[4], nodes[3]);
+
+		dfs = new DepthFirstSearch(graph);
+
+		dfs.runFrom(2);
+
+		if (dfs.toString().equals("2 1") && !dfs.isVisited(0) && dfs.finish(0) == -1
+				&& Arrays.toString(dfs.run()).equals("[0, 1, 2, 3, 4, 5]") && dfs.discovery(1) == 1
+				&& dfs.finish(1) == 2 && dfs.finish(0) == 5 && dfs.discovery(4) == 8) {
+			System.out.println("Yay 2");
+		}
+
+	}
+
+}
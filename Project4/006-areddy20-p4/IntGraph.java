@@ -0,0 +1,93 @@
+import java.util.function.IntConsumer;
+
+/**
+ * This is the IntGraph interface.
+ * It lets graph algorithms walk a directed graph through int vertex indices
+ * without building a collection per query. Every vertex in the graph has an
+ * index in [0, vertexBound()); indices of removed vertices are unused.
+ * ThreeTenGraph and ThreeTenCsrGraph use the GraphNode id as the index,
+ * ThreeTenListGraph uses its internal slot.
+ *
+ * @author Aditi Reddy.
+ */
+interface IntGraph {
+
+	/**
+	 * Method that reports one more than the largest vertex index in use.
+	 *
+	 * @return bound for output.
+	 */
+	int vertexBound();
+
+	/**
+	 * Method that gets the vertex at index.
+	 *
+	 * @param index for input.
+	 * @return vertex, or null if index is unused, for output.
+	 */
+	GraphNode vertexAt(int index);
+
+	/**
+	 * Method that gets the index of vertex.
+	 *
+	 * @param vertex for input.
+	 * @return index, or -1 if vertex is not in the graph, for output.
+	 */
+	int indexOf(GraphNode vertex);
+
+	/**
+	 * Method that reports how many successors the vertex at index has.
+	 *
+	 * @param index for input.
+	 * @return successor count for output.
+	 */
+	int successorCount(int index);
+
+	/**
+	 * Method that reports how many predecessors the vertex at index has.
+	 *
+	 * @param index for input.
+	 * @return predecessor count for output.
+	 */
+	int predecessorCount(int index);
+
+	/**
+	 * Method that passes the index of every successor of the vertex at index to
+	 * action.
+	 *
+	 * @param index  for input.
+	 * @param action for input.
+	 */
+	void forEachSuccessor(int index, IntConsumer action);
+
+	/**
+	 * Method that passes the index of every predecessor of the vertex at index
+	 * to action.
+	 *
+	 * @param index  for input.
+	 * @param action for input.
+	 */
+	void forEachPredecessor(int index, IntConsumer action);
+
+	/**
+	 * Method that copies the successor indices of the vertex at index into buf.
+	 * At most buf.length indices are written; the full count is returned so the
+	 * caller can grow buf and try again.
+	 *
+	 * @param index for input.
+	 * @param buf   for input.
+	 * @return successor count for output.
+	 */
+	int successorIds(int index, int[] buf);
+
+	/**
+	 * Method that copies the predecessor indices of the vertex at index into
+	 * buf, with the same contract as successorIds.
+	 *
+	 * @param index for input.
+	 * @param buf   for input.
+	 * @return predecessor count for output.
+	 */
+	int predecessorIds(int index, int[] buf);
+
+}
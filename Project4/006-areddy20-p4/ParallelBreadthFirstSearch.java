@@ -0,0 +1,654 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * This is the ParallelBreadthFirstSearch class.
+ * It computes the same hop distances as BreadthFirstSearch.run, one level at
+ * a time on a ForkJoinPool, and picks a direction for every level:
+ * <ul>
+ * <li>top-down: frontier vertices claim their unvisited successors; a vertex
+ * is claimed by setting its bit in an atomic visited bitset, so exactly one
+ * task writes each distance.</li>
+ * <li>bottom-up: every unvisited vertex looks for a predecessor in the
+ * frontier and stops at the first one, which is much cheaper once the
+ * frontier covers a large part of the graph.</li>
+ * </ul>
+ * The search goes bottom-up when the edges leaving the frontier exceed
+ * 1/ALPHA of the edges leaving unvisited vertices, and back top-down when the
+ * frontier shrinks below 1/BETA of the vertices.
+ *
+ * <p>
+ * The graph must not change during a search. The calling thread reads the
+ * source's successors before any task forks, which brings a
+ * ThreeTenCsrGraph's rows up to date.
+ *
+ * @author Aditi Reddy.
+ */
+class ParallelBreadthFirstSearch {
+
+	/**
+	 * Private static variable for how many vertices one task handles alone.
+	 */
+	private static final int PARALLEL_THRESHOLD = 2048;
+
+	/**
+	 * Private static variable for the top-down to bottom-up switch.
+	 */
+	private static final int ALPHA = 14;
+
+	/**
+	 * Private static variable for the bottom-up to top-down switch.
+	 */
+	private static final int BETA = 24;
+
+	/**
+	 * Private variable for the graph being searched.
+	 */
+	private final IntGraph graph;
+
+	/**
+	 * Private variable for the pool tasks run on.
+	 */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Private variable for the hop distance of each vertex.
+	 */
+	private int[] distance;
+
+	/**
+	 * Private variable for the visited vertices.
+	 */
+	private AtomicLongArray visited;
+
+	/**
+	 * Private variable for the current frontier as a list.
+	 */
+	private int[] frontier;
+
+	/**
+	 * Private variable for the next frontier as a list.
+	 */
+	private int[] next;
+
+	/**
+	 * Private variable for the number of entries in next.
+	 */
+	private final AtomicInteger nextSize;
+
+	/**
+	 * Private variable for the current frontier as a bitset.
+	 */
+	private AtomicLongArray frontierBits;
+
+	/**
+	 * Private variable for the next frontier as a bitset.
+	 */
+	private AtomicLongArray nextBits;
+
+	/**
+	 * Private variable for the out-degree sum of the next frontier.
+	 */
+	private final AtomicLong nextEdges;
+
+	/**
+	 * Private variable for the number of levels that ran bottom-up.
+	 */
+	private int bottomUpLevels;
+
+	/**
+	 * Constructor for a search over graph on the common pool.
+	 *
+	 * @param graph for input.
+	 */
+	ParallelBreadthFirstSearch(IntGraph graph) {
+
+		this(graph, ForkJoinPool.commonPool());
+
+	}
+
+	/**
+	 * Constructor for a search over graph on pool.
+	 *
+	 * @param graph for input.
+	 * @param pool  for input.
+	 */
+	ParallelBreadthFirstSearch(IntGraph graph, ForkJoinPool pool) {
+
+		this.graph = graph;
+
+		this.pool = pool;
+
+		this.nextSize = new AtomicInteger();
+
+		this.nextEdges = new AtomicLong();
+
+	}
+
+	/**
+	 * Private static method that sets bit index of bits unless it was set.
+	 *
+	 * @param bits  for input.
+	 * @param index for input.
+	 * @return true if this call set the bit for output.
+	 */
+	private static boolean claim(AtomicLongArray bits, int index) {
+
+		int w = index >>> 6;
+
+		long mask = 1L << index;
+
+		for (;;) {
+
+			long old = bits.get(w);
+
+			if ((old & mask) != 0) {
+
+				return (false);
+
+			}
+
+			if (bits.compareAndSet(w, old, old | mask)) {
+
+				return (true);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Private static method that reads bit index of bits.
+	 *
+	 * @param bits  for input.
+	 * @param index for input.
+	 * @return true or false for output.
+	 */
+	private static boolean test(AtomicLongArray bits, int index) {
+
+		return ((bits.get(index >>> 6) & (1L << index)) != 0);
+
+	}
+
+	/**
+	 * Method that computes the hop distance of every vertex from source.
+	 *
+	 * @param source for input.
+	 * @return distances, -1 for unreachable vertices, for output.
+	 */
+	int[] distances(int source) {
+
+		int n = graph.vertexBound();
+
+		int words = (n + 63) >>> 6;
+
+		this.distance = new int[n];
+
+		Arrays.fill(distance, -1);
+
+		this.bottomUpLevels = 0;
+
+		if (graph.vertexAt(source) == null) {
+
+			return (distance);
+
+		}
+
+		this.visited = new AtomicLongArray(words);
+
+		this.frontierBits = new AtomicLongArray(words);
+
+		this.nextBits = new AtomicLongArray(words);
+
+		this.frontier = new int[n];
+
+		this.next = new int[n];
+
+		long unexploredEdges = 0;
+
+		for (int v = 0; v < n; v++) {
+
+			unexploredEdges += graph.successorCount(v);
+
+		}
+
+		graph.successorIds(source, new int[0]);
+
+		distance[source] = 0;
+
+		claim(visited, source);
+
+		frontier[0] = source;
+
+		int frontierSize = 1;
+
+		long frontierEdges = graph.successorCount(source);
+
+		boolean bottomUp = false;
+
+		boolean listValid = true;
+
+		for (int level = 0; frontierSize > 0; level++) {
+
+			unexploredEdges -= frontierEdges;
+
+			if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+
+				bottomUp = true;
+
+			}
+
+			else if (bottomUp && frontierSize < n / BETA) {
+
+				bottomUp = false;
+
+			}
+
+			nextSize.set(0);
+
+			nextEdges.set(0);
+
+			if (bottomUp) {
+
+				if (listValid) {
+
+					clear(frontierBits);
+
+					for (int i = 0; i < frontierSize; i++) {
+
+						claim(frontierBits, frontier[i]);
+
+					}
+
+				}
+
+				clear(nextBits);
+
+				pool.invoke(new BottomUpTask(level, 0, n));
+
+				AtomicLongArray swap = frontierBits;
+
+				this.frontierBits = nextBits;
+
+				this.nextBits = swap;
+
+				listValid = false;
+
+				this.bottomUpLevels++;
+
+			}
+
+			else {
+
+				if (!listValid) {
+
+					frontierSize = 0;
+
+					for (int w = 0; w < words; w++) {
+
+						for (long bits = frontierBits.get(w); bits != 0; bits &= bits - 1) {
+
+							frontier[frontierSize++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+						}
+
+					}
+
+				}
+
+				pool.invoke(new TopDownTask(level, 0, frontierSize));
+
+				int[] swap = frontier;
+
+				this.frontier = next;
+
+				this.next = swap;
+
+				listValid = true;
+
+			}
+
+			frontierSize = nextSize.get();
+
+			frontierEdges = nextEdges.get();
+
+		}
+
+		return (distance);
+
+	}
+
+	/**
+	 * Method that reports how many levels of the last search ran bottom-up.
+	 *
+	 * @return count for output.
+	 */
+	int bottomUpLevels() {
+
+		return (this.bottomUpLevels);
+
+	}
+
+	/**
+	 * Private static method that zeroes bits.
+	 *
+	 * @param bits for input.
+	 */
+	private static void clear(AtomicLongArray bits) {
+
+		for (int w = 0; w < bits.length(); w++) {
+
+			bits.set(w, 0L);
+
+		}
+
+	}
+
+	/**
+	 * This is the TopDownTask class.
+	 * It expands a range of the frontier list. Claimed vertices are gathered
+	 * in a local buffer and copied into the next list with one reservation.
+	 */
+	private class TopDownTask extends RecursiveAction {
+
+		/**
+		 * Serial version for RecursiveAction.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Private variable for the level being expanded.
+		 */
+		private final int level;
+
+		/**
+		 * Private variable for the first frontier entry of the range.
+		 */
+		private final int from;
+
+		/**
+		 * Private variable for the entry after the range.
+		 */
+		private final int to;
+
+		/**
+		 * Method to initialize TopDownTask.
+		 *
+		 * @param level for input.
+		 * @param from  for input.
+		 * @param to    for input.
+		 */
+		TopDownTask(int level, int from, int to) {
+
+			this.level = level;
+
+			this.from = from;
+
+			this.to = to;
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+
+			if (to - from > PARALLEL_THRESHOLD) {
+
+				int mid = (from + to) >>> 1;
+
+				invokeAll(new TopDownTask(level, from, mid), new TopDownTask(level, mid, to));
+
+				return;
+
+			}
+
+			int[] successors = new int[16];
+
+			int[] found = new int[16];
+
+			int count = 0;
+
+			long edges = 0;
+
+			for (int i = from; i < to; i++) {
+
+				int u = frontier[i];
+
+				int degree = graph.successorIds(u, successors);
+
+				if (degree > successors.length) {
+
+					successors = new int[Math.max(degree, successors.length * 2)];
+
+					graph.successorIds(u, successors);
+
+				}
+
+				for (int j = 0; j < degree; j++) {
+
+					int w = successors[j];
+
+					if (!test(visited, w) && claim(visited, w)) {
+
+						distance[w] = level + 1;
+
+						if (count == found.length) {
+
+							found = Arrays.copyOf(found, count * 2);
+
+						}
+
+						found[count++] = w;
+
+						edges += graph.successorCount(w);
+
+					}
+
+				}
+
+			}
+
+			int at = nextSize.getAndAdd(count);
+
+			System.arraycopy(found, 0, next, at, count);
+
+			nextEdges.addAndGet(edges);
+
+		}
+
+	}
+
+	/**
+	 * This is the BottomUpTask class.
+	 * It checks a range of vertex indices; each unvisited vertex joins the next
+	 * frontier at the first predecessor it finds in the current one.
+	 */
+	private class BottomUpTask extends RecursiveAction {
+
+		/**
+		 * Serial version for RecursiveAction.
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * Private variable for the level being expanded.
+		 */
+		private final int level;
+
+		/**
+		 * Private variable for the first vertex index of the range.
+		 */
+		private final int from;
+
+		/**
+		 * Private variable for the index after the range.
+		 */
+		private final int to;
+
+		/**
+		 * Method to initialize BottomUpTask.
+		 *
+		 * @param level for input.
+		 * @param from  for input.
+		 * @param to    for input.
+		 */
+		BottomUpTask(int level, int from, int to) {
+
+			this.level = level;
+
+			this.from = from;
+
+			this.to = to;
+
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		@Override
+		protected void compute() {
+
+			if (to - from > PARALLEL_THRESHOLD) {
+
+				// split on a word boundary so halves rarely share a bitset word
+				int mid = ((from + to) >>> 1) & ~63;
+
+				if (mid > from) {
+
+					invokeAll(new BottomUpTask(level, from, mid), new BottomUpTask(level, mid, to));
+
+					return;
+
+				}
+
+			}
+
+			int[] predecessors = new int[16];
+
+			int count = 0;
+
+			long edges = 0;
+
+			for (int v = from; v < to; v++) {
+
+				if (test(visited, v) || graph.vertexAt(v) == null) {
+
+					continue;
+
+				}
+
+				int degree = graph.predecessorIds(v, predecessors);
+
+				if (degree > predecessors.length) {
+
+					predecessors = new int[Math.max(degree, predecessors.length * 2)];
+
+					graph.predecessorIds(v, predecessors);
+
+				}
+
+				for (int j = 0; j < degree; j++) {
+
+					if (test(frontierBits, predecessors[j])) {
+
+						distance[v] = level + 1;
+
+						claim(visited, v);
+
+						claim(nextBits, v);
+
+						count++;
+
+						edges += graph.successorCount(v);
+
+						break;
+
+					}
+
+				}
+
+			}
+
+			nextSize.addAndGet(count);
+
+			nextEdges.addAndGet(edges);
+
+		}
+
+	}
+
+	/**
+	 * Main method for testing.
+	 *
+	 * @param args for input.
+	 */
+	public static void main(String[] args) {
+
+		ThreeTenCsrGraph graph = new ThreeTenCsrGraph();
+
+		int n = 200000;
+
+		for (int i = 0; i < n; i++) {
+			graph.addVertex(new GraphNode(i));
+		}
+
+		java.util.Random random = new java.util.Random(42);
+
+		for (int e = 0; e < 16 * n; e++) {
+			graph.addEdge(new GraphEdge(e), graph.vertexAt(random.nextInt(n)), graph.vertexAt(random.nextInt(n)));
+		}
+
+		BreadthFirstSearch bfs = new BreadthFirstSearch(graph);
+
+		bfs.run(0);
+
+		ParallelBreadthFirstSearch pbfs = new ParallelBreadthFirstSearch(graph);
+
+		if (Arrays.equals(pbfs.distances(0), bfs.distances()) && pbfs.bottomUpLevels() > 0) {
+			System.out.println("Yay 1");
+		}
+
+		ThreeTenListGraph chain = new ThreeTenListGraph();
+
+		GraphNode first = new GraphNode(-1);
+
+		chain.addVertex(first);
+
+		GraphNode previous = first;
+
+		for (int i = 0; i < 10000; i++) {
+			GraphNode node = new GraphNode(i);
+			chain.addVertex(node);
+			chain.addEdge(new GraphEdge(i), previous, node);
+			previous = node;
+		}
+
+		ForkJoinPool twoThreads = new ForkJoinPool(2);
+
+		int head = chain.indexOf(first);
+
+		int[] dist = new ParallelBreadthFirstSearch(chain, twoThreads).distances(head);
+
+		bfs = new BreadthFirstSearch(chain);
+
+		bfs.run(head);
+
+		int[] back = new ParallelBreadthFirstSearch(chain, twoThreads).distances(chain.indexOf(previous));
+
+		twoThreads.shutdown();
+
+		if (Arrays.equals(dist, bfs.distances()) && dist[chain.indexOf(previous)] == 10000 && back[head] == -1
+				&& back[chain.indexOf(previous)] == 0) {
+			System.out.println("Yay 2");
+		}
+
+	}
+
+}
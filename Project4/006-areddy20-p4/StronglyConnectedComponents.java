@@ -0,0 +1,683 @@
+import java.util.Arrays;
+
+/**
+ * This is the StronglyConnectedComponents class.
+ * It splits an IntGraph into strongly connected components with an iterative
+ * version of Tarjan's algorithm, so deep graphs cannot overflow the call
+ * stack, and everything it reports takes time linear in the graph size.
+ * Component ids are numbered in topological order: every edge between two
+ * components goes from the lower id to the higher one.
+ *
+ * @author Aditi Reddy.
+ */
+class StronglyConnectedComponents {
+
+	/**
+	 * Private variable for the graph being split.
+	 */
+	private final IntGraph graph;
+
+	/**
+	 * Private variable for the component id of each vertex, -1 if none.
+	 */
+	private int[] component;
+
+	/**
+	 * Private variable for the number of vertices in each component.
+	 */
+	private int[] componentSize;
+
+	/**
+	 * Private variable for the number of components.
+	 */
+	private int count;
+
+	/**
+	 * Private variable for the preorder number of each vertex, -1 if unvisited.
+	 */
+	private int[] preorder;
+
+	/**
+	 * Private variable for the lowest preorder number each vertex can reach.
+	 */
+	private int[] low;
+
+	/**
+	 * Private variable for the vertices not yet placed in a component.
+	 */
+	private int[] open;
+
+	/**
+	 * Private variable for the vertex of each stack frame.
+	 */
+	private int[] stackVertex;
+
+	/**
+	 * Private variable for the next pool position of each stack frame.
+	 */
+	private int[] stackCursor;
+
+	/**
+	 * Private variable for the pool position where each frame's successors end.
+	 */
+	private int[] stackEnd;
+
+	/**
+	 * Private variable for the successor indices of every vertex on the stack.
+	 */
+	private int[] pool;
+
+	/**
+	 * Private variable for the scratch buffer successors are copied through.
+	 */
+	private int[] neighbors;
+
+	/**
+	 * Private variable for the marks of the cycle search and condensation.
+	 */
+	private int[] mark;
+
+	/**
+	 * Private variable for the stamp of the current mark pass.
+	 */
+	private int stamp;
+
+	/**
+	 * Constructor for the components of graph.
+	 *
+	 * @param graph for input.
+	 */
+	StronglyConnectedComponents(IntGraph graph) {
+
+		this.graph = graph;
+
+		this.component = new int[0];
+
+		this.componentSize = new int[0];
+
+		this.pool = new int[16];
+
+		this.neighbors = new int[16];
+
+		this.mark = new int[0];
+
+	}
+
+	/**
+	 * Private method that copies the successors of index into the scratch
+	 * buffer, growing it if needed.
+	 *
+	 * @param index for input.
+	 * @return number of successors for output.
+	 */
+	private int loadSuccessors(int index) {
+
+		int degree = graph.successorIds(index, neighbors);
+
+		if (degree > neighbors.length) {
+
+			this.neighbors = new int[Math.max(degree, neighbors.length * 2)];
+
+			graph.successorIds(index, neighbors);
+
+		}
+
+		return (degree);
+
+	}
+
+	/**
+	 * Private method that starts a new mark pass and returns its stamp.
+	 *
+	 * @return stamp for output.
+	 */
+	private int nextStamp() {
+
+		int n = graph.vertexBound();
+
+		if (mark.length < n) {
+
+			this.mark = new int[n];
+
+			this.stamp = 0;
+
+		}
+
+		this.stamp++;
+
+		if (stamp == 0) {
+
+			Arrays.fill(mark, 0);
+
+			this.stamp = 1;
+
+		}
+
+		return (stamp);
+
+	}
+
+	/**
+	 * Method that finds the components of the whole graph.
+	 *
+	 * @return number of components for output.
+	 */
+	int run() {
+
+		int n = graph.vertexBound();
+
+		this.component = new int[n];
+
+		this.preorder = new int[n];
+
+		this.low = new int[n];
+
+		this.open = new int[n];
+
+		this.stackVertex = new int[n];
+
+		this.stackCursor = new int[n];
+
+		this.stackEnd = new int[n];
+
+		Arrays.fill(component, -1);
+
+		Arrays.fill(preorder, -1);
+
+		this.count = 0;
+
+		int[] clock = { 0, 0 };
+
+		for (int s = 0; s < n; s++) {
+
+			if (graph.vertexAt(s) != null && preorder[s] < 0) {
+
+				strongConnect(s, clock);
+
+			}
+
+		}
+
+		// Tarjan closes sinks first, so flip the ids into topological order
+		this.componentSize = new int[count];
+
+		for (int v = 0; v < n; v++) {
+
+			if (component[v] >= 0) {
+
+				component[v] = count - 1 - component[v];
+
+				componentSize[component[v]]++;
+
+			}
+
+		}
+
+		this.preorder = null;
+
+		this.low = null;
+
+		this.open = null;
+
+		this.stackVertex = null;
+
+		this.stackCursor = null;
+
+		this.stackEnd = null;
+
+		return (count);
+
+	}
+
+	/**
+	 * Private method that marks index visited and pushes a frame holding its
+	 * successors.
+	 *
+	 * @param index for input.
+	 * @param top   for input.
+	 * @param start for input.
+	 * @param clock for input, the next preorder number and open stack size.
+	 */
+	private void push(int index, int top, int start, int[] clock) {
+
+		preorder[index] = clock[0];
+
+		low[index] = clock[0];
+
+		clock[0]++;
+
+		open[clock[1]++] = index;
+
+		int degree = loadSuccessors(index);
+
+		if (start + degree > pool.length) {
+
+			this.pool = Arrays.copyOf(pool, Math.max(start + degree, pool.length * 2));
+
+		}
+
+		System.arraycopy(neighbors, 0, pool, start, degree);
+
+		stackVertex[top] = index;
+
+		stackCursor[top] = start;
+
+		stackEnd[top] = start + degree;
+
+	}
+
+	/**
+	 * Private method that runs Tarjan's search from root. A vertex that has
+	 * been visited but has no component yet is still on the open stack.
+	 *
+	 * @param root  for input.
+	 * @param clock for input.
+	 */
+	private void strongConnect(int root, int[] clock) {
+
+		int top = 0;
+
+		push(root, 0, 0, clock);
+
+		while (top >= 0) {
+
+			int v = stackVertex[top];
+
+			if (stackCursor[top] < stackEnd[top]) {
+
+				int w = pool[stackCursor[top]++];
+
+				if (preorder[w] < 0) {
+
+					push(w, top + 1, stackEnd[top], clock);
+
+					top++;
+
+				}
+
+				else if (component[w] < 0) {
+
+					low[v] = Math.min(low[v], preorder[w]);
+
+				}
+
+				continue;
+
+			}
+
+			if (low[v] == preorder[v]) {
+
+				int w;
+
+				do {
+
+					w = open[--clock[1]];
+
+					component[w] = count;
+
+				} while (w != v);
+
+				this.count++;
+
+			}
+
+			top--;
+
+			if (top >= 0) {
+
+				int parent = stackVertex[top];
+
+				low[parent] = Math.min(low[parent], low[v]);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Method that reports how many components the last run found.
+	 *
+	 * @return count for output.
+	 */
+	int componentCount() {
+
+		return (this.count);
+
+	}
+
+	/**
+	 * Method that reports the component id of index.
+	 *
+	 * @param index for input.
+	 * @return component id, or -1 if index is unused, for output.
+	 */
+	int component(int index) {
+
+		if (index < 0 || index >= component.length) {
+
+			return (-1);
+
+		}
+
+		return (component[index]);
+
+	}
+
+	/**
+	 * Method that returns the component id of every vertex index, -1 for
+	 * unused indices.
+	 *
+	 * @return component ids for output.
+	 */
+	int[] components() {
+
+		return (Arrays.copyOf(component, component.length));
+
+	}
+
+	/**
+	 * Method that reports how many vertices are in component c.
+	 *
+	 * @param c for input.
+	 * @return size, or 0 for an unknown id, for output.
+	 */
+	int componentSize(int c) {
+
+		if (c < 0 || c >= count) {
+
+			return (0);
+
+		}
+
+		return (componentSize[c]);
+
+	}
+
+	/**
+	 * Method that builds the condensation of the graph: one vertex per
+	 * component, with GraphNode id equal to the component id, and one edge
+	 * for every pair of components joined by at least one edge. The result
+	 * has no cycles.
+	 *
+	 * @return condensation for output.
+	 */
+	ThreeTenCsrGraph condensation() {
+
+		int n = component.length;
+
+		ThreeTenCsrGraph dag = new ThreeTenCsrGraph();
+
+		GraphNode[] nodes = new GraphNode[count];
+
+		for (int c = 0; c < count; c++) {
+
+			nodes[c] = new GraphNode(c);
+
+			dag.addVertex(nodes[c]);
+
+		}
+
+		// group the vertices by component so each one is scanned once
+		int[] start = new int[count + 1];
+
+		for (int c = 0; c < count; c++) {
+
+			start[c + 1] = start[c] + componentSize[c];
+
+		}
+
+		int[] fill = Arrays.copyOf(start, count);
+
+		int[] members = new int[start[count]];
+
+		for (int v = 0; v < n; v++) {
+
+			if (component[v] >= 0) {
+
+				members[fill[component[v]]++] = v;
+
+			}
+
+		}
+
+		int[] seen = new int[count];
+
+		int edgeId = 0;
+
+		for (int c = 0; c < count; c++) {
+
+			for (int i = start[c]; i < start[c + 1]; i++) {
+
+				int degree = loadSuccessors(members[i]);
+
+				for (int j = 0; j < degree; j++) {
+
+					int d = component[neighbors[j]];
+
+					if (d != c && seen[d] != c + 1) {
+
+						seen[d] = c + 1;
+
+						dag.addEdge(new GraphEdge(edgeId++), nodes[c], nodes[d]);
+
+					}
+
+				}
+
+			}
+
+		}
+
+		return (dag);
+
+	}
+
+	/**
+	 * Method that finds a shortest cycle through index. The cycle is searched
+	 * breadth first inside the component of index only.
+	 *
+	 * @param index for input.
+	 * @return vertex indices v0 = index, v1, ..., vk where every vi has an edge
+	 *         to the next one and vk has an edge back to v0, or an empty array
+	 *         if index is on no cycle, for output.
+	 */
+	int[] cycleThrough(int index) {
+
+		int c = component(index);
+
+		if (c < 0) {
+
+			return (new int[0]);
+
+		}
+
+		int s = nextStamp();
+
+		int[] queue = new int[componentSize[c]];
+
+		int[] parent = new int[componentSize[c]];
+
+		int head = 0;
+
+		int tail = 0;
+
+		queue[tail] = index;
+
+		parent[tail++] = -1;
+
+		mark[index] = s;
+
+		while (head < tail) {
+
+			int at = head++;
+
+			int u = queue[at];
+
+			int degree = loadSuccessors(u);
+
+			for (int j = 0; j < degree; j++) {
+
+				int w = neighbors[j];
+
+				if (w == index) {
+
+					int length = 0;
+
+					for (int p = at; p >= 0; p = parent[p]) {
+
+						length++;
+
+					}
+
+					int[] cycle = new int[length];
+
+					for (int p = at; p >= 0; p = parent[p]) {
+
+						cycle[--length] = queue[p];
+
+					}
+
+					return (cycle);
+
+				}
+
+				if (component[w] == c && mark[w] != s) {
+
+					mark[w] = s;
+
+					queue[tail] = w;
+
+					parent[tail++] = at;
+
+				}
+
+			}
+
+		}
+
+		return (new int[0]);
+
+	}
+
+	/**
+	 * Method that finds a cycle anywhere in the graph, through the lowest vertex
+	 * index that is on one.
+	 *
+	 * @return cycle as in cycleThrough, or an empty array if the graph has no
+	 *         cycle, for output.
+	 */
+	int[] cycleWitness() {
+
+		for (int v = 0; v < component.length; v++) {
+
+			if (component[v] < 0) {
+
+				continue;
+
+			}
+
+			if (componentSize[component[v]] > 1) {
+
+				return (cycleThrough(v));
+
+			}
+
+			int degree = loadSuccessors(v);
+
+			for (int j = 0; j < degree; j++) {
+
+				if (neighbors[j] == v) {
+
+					return (new int[] { v });
+
+				}
+
+			}
+
+		}
+
+		return (new int[0]);
+
+	}
+
+	/**
+	 * Method that reports whether the graph has no cycle.
+	 *
+	 * @return true or false for output.
+	 */
+	boolean isAcyclic() {
+
+		return (cycleWitness().length == 0);
+
+	}
+
+	/**
+	 * Main method for testing.
+	 *
+	 * @param args for input.
+	 */
+	public static void main(String[] args) {
+
+		ThreeTenGraph graph = new ThreeTenGraph();
+
+		GraphNode[] nodes = new GraphNode[8];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode(i);
+			graph.addVertex(nodes[i]);
+		}
+
+		int[][] pairs = { { 0, 1 }, { 1, 2 }, { 2, 0 }, { 2, 3 }, { 3, 4 }, { 4, 5 }, { 5, 3 }, { 6, 5 }, { 7, 7 } };
+
+		for (int i = 0; i < pairs.length; i++) {
+			graph.addEdge(new GraphEdge(i), nodes[pairs[i][0]], nodes[pairs[i][1]]);
+		}
+
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(graph);
+
+		if (scc.run() == 4 && scc.component(0) == scc.component(2) && scc.component(3) == scc.component(5)
+				&& scc.component(0) < scc.component(3) && scc.component(6) < scc.component(3)
+				&& scc.componentSize(scc.component(4)) == 3 && scc.component(8) == -1) {
+			System.out.println("Yay 1");
+		}
+
+		ThreeTenCsrGraph dag = scc.condensation();
+
+		int[] cycle = scc.cycleThrough(4);
+
+		if (dag.getVertexCount() == 4 && dag.getEdgeCount() == 2
+				&& dag.isSuccessor(dag.vertexAt(scc.component(3)), dag.vertexAt(scc.component(0)))
+				&& Arrays.toString(scc.cycleWitness()).equals("[0, 1, 2]")
+				&& Arrays.toString(cycle).equals("[4, 5, 3]") && scc.cycleThrough(6).length == 0
+				&& Arrays.toString(scc.cycleThrough(7)).equals("[7]") && !scc.isAcyclic()) {
+			System.out.println("Yay 2");
+		}
+
+		ThreeTenCsrGraph chain = new ThreeTenCsrGraph();
+
+		GraphNode previous = new GraphNode(0);
+
+		chain.addVertex(previous);
+
+		for (int i = 1; i < 1000000; i++) {
+			GraphNode next = new GraphNode(i);
+			chain.addVertex(next);
+			chain.addEdge(new GraphEdge(i), previous, next);
+			previous = next;
+		}
+
+		scc = new StronglyConnectedComponents(chain);
+
+		boolean acyclic = scc.run() == 1000000 && scc.isAcyclic() && scc.component(0) == 0;
+
+		chain.addEdge(new GraphEdge(0), previous, chain.vertexAt(0));
+
+		if (acyclic && scc.run() == 1 && scc.cycleWitness().length == 1000000
+				&& scc.condensation().getEdgeCount() == 0) {
+			System.out.println("Yay 3");
+		}
+
+	}
+
+}
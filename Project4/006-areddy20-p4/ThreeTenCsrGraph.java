@@ -0,0 +1,1703 @@
+import edu.uci.ics.jung.graph.Graph;
+import edu.uci.ics.jung.graph.DirectedGraph;
+import edu.uci.ics.jung.graph.util.Pair;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import org.apache.commons.collections15.Factory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedList;
+import java.util.function.IntConsumer;
+
+/**
+ * This is the ThreeTenCsrGraph class.
+ * It is a directed graph for bulk-loaded, read-mostly use, stored in
+ * compressed sparse row (CSR) form: an offsets array per vertex id pointing
+ * into packed arrays of neighbor ids and edge ids, kept once by source and
+ * once by destination. Rows are sorted by neighbor id, so traversals visit
+ * vertices in the same order as ThreeTenGraph.
+ *
+ * <p>
+ * Vertex and edge ids index the tables directly, so there is no node limit
+ * beyond memory. Added edges are staged and the rows are rebuilt in O(V+E)
+ * the next time the graph is read, so load all edges before querying.
+ * Removed edges are skipped in place and the rows are compacted once more
+ * than half of the entries are dead.
+ *
+ * @author Aditi Reddy.
+ */
+class ThreeTenCsrGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphNode, GraphEdge>, IntGraph {
+
+	/**
+	 * Private static variable for the starting table length.
+	 */
+	private static final int INITIAL_CAPACITY = 16;
+
+	/**
+	 * Private variable for the vertices, indexed by vertex id.
+	 */
+	private GraphNode[] vertexList;
+
+	/**
+	 * Private variable for one more than the largest vertex id added.
+	 */
+	private int vertexBound;
+
+	/**
+	 * Private variable for the number of vertices.
+	 */
+	private int vertexCount;
+
+	/**
+	 * Private variable for the edges, indexed by edge id.
+	 */
+	private GraphEdge[] edgeList;
+
+	/**
+	 * Private variable for the source vertex id of each edge id.
+	 */
+	private int[] edgeSource;
+
+	/**
+	 * Private variable for the destination vertex id of each edge id.
+	 */
+	private int[] edgeDest;
+
+	/**
+	 * Private variable for one more than the largest edge id added.
+	 */
+	private int edgeBound;
+
+	/**
+	 * Private variable for the number of edges.
+	 */
+	private int edgeCount;
+
+	/**
+	 * Private variable for the live out-degree of each vertex id.
+	 */
+	private int[] outDegrees;
+
+	/**
+	 * Private variable for the live in-degree of each vertex id.
+	 */
+	private int[] inDegrees;
+
+	/**
+	 * Private variable for where each vertex's out row starts; row v is
+	 * outOffsets[v] to outOffsets[v + 1].
+	 */
+	private int[] outOffsets;
+
+	/**
+	 * Private variable for the destination of each out row entry.
+	 */
+	private int[] outTargets;
+
+	/**
+	 * Private variable for the edge id of each out row entry.
+	 */
+	private int[] outEdgeIds;
+
+	/**
+	 * Private variable for where each vertex's in row starts.
+	 */
+	private int[] inOffsets;
+
+	/**
+	 * Private variable for the source of each in row entry.
+	 */
+	private int[] inSources;
+
+	/**
+	 * Private variable for the edge id of each in row entry.
+	 */
+	private int[] inEdgeIds;
+
+	/**
+	 * Private variable for the number of vertex ids the rows cover.
+	 */
+	private int rowCount;
+
+	/**
+	 * Private variable for the number of removed edges still in the rows.
+	 */
+	private int deadEntries;
+
+	/**
+	 * Private variable that is true when edges were added since the last build.
+	 */
+	private boolean dirty;
+
+	/**
+	 * Private variable for marking neighbors already reported.
+	 */
+	private int[] neighborMark;
+
+	/**
+	 * Private variable for the current neighbor mark.
+	 */
+	private int neighborStamp;
+
+	/**
+	 * Defualt constructor for ThreeTenCsrGraph.
+	 */
+	public ThreeTenCsrGraph() {
+
+		this.vertexList = new GraphNode[INITIAL_CAPACITY];
+
+		this.outDegrees = new int[INITIAL_CAPACITY];
+
+		this.inDegrees = new int[INITIAL_CAPACITY];
+
+		this.edgeList = new GraphEdge[INITIAL_CAPACITY];
+
+		this.edgeSource = new int[INITIAL_CAPACITY];
+
+		this.edgeDest = new int[INITIAL_CAPACITY];
+
+		this.outOffsets = new int[1];
+
+		this.outTargets = new int[0];
+
+		this.outEdgeIds = new int[0];
+
+		this.inOffsets = new int[1];
+
+		this.inSources = new int[0];
+
+		this.inEdgeIds = new int[0];
+
+		this.neighborMark = new int[0];
+
+	}
+
+	/**
+	 * Static method that bulk loads every vertex and edge of graph.
+	 *
+	 * @param graph for input.
+	 * @return csr graph for output.
+	 */
+	public static ThreeTenCsrGraph copyOf(Graph<GraphNode, GraphEdge> graph) {
+
+		ThreeTenCsrGraph csr = new ThreeTenCsrGraph();
+
+		for (GraphNode vertex : graph.getVertices()) {
+
+			csr.addVertex(vertex);
+
+		}
+
+		for (GraphEdge edge : graph.getEdges()) {
+
+			Pair<GraphNode> ends = graph.getEndpoints(edge);
+
+			csr.addEdge(edge, ends.getFirst(), ends.getSecond());
+
+		}
+
+		return (csr);
+
+	}
+
+	/**
+	 * Private method that makes the rows match the edge tables again.
+	 * Edges are counted into the out rows in id order, copied from there into
+	 * the in rows (which leaves each in row sorted by source) and copied back
+	 * into the out rows (which leaves each out row sorted by destination).
+	 */
+	private void ensureBuilt() {
+
+		if (!dirty && deadEntries <= edgeCount) {
+
+			return;
+
+		}
+
+		int n = vertexBound;
+
+		int[] offsets = new int[n + 1];
+
+		int[] targets = new int[edgeCount];
+
+		int[] ids = new int[edgeCount];
+
+		for (int v = 0; v < n; v++) {
+
+			offsets[v + 1] = offsets[v] + outDegrees[v];
+
+		}
+
+		int[] fill = Arrays.copyOf(offsets, n);
+
+		for (int e = 0; e < edgeBound; e++) {
+
+			if (edgeList[e] != null) {
+
+				int pos = fill[edgeSource[e]]++;
+
+				targets[pos] = edgeDest[e];
+
+				ids[pos] = e;
+
+			}
+
+		}
+
+		this.inOffsets = new int[n + 1];
+
+		this.inSources = new int[edgeCount];
+
+		this.inEdgeIds = new int[edgeCount];
+
+		for (int v = 0; v < n; v++) {
+
+			inOffsets[v + 1] = inOffsets[v] + inDegrees[v];
+
+		}
+
+		fill = Arrays.copyOf(inOffsets, n);
+
+		for (int v = 0; v < n; v++) {
+
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+
+				int pos = fill[targets[i]]++;
+
+				inSources[pos] = v;
+
+				inEdgeIds[pos] = ids[i];
+
+			}
+
+		}
+
+		fill = Arrays.copyOf(offsets, n);
+
+		for (int v = 0; v < n; v++) {
+
+			for (int i = inOffsets[v]; i < inOffsets[v + 1]; i++) {
+
+				int pos = fill[inSources[i]]++;
+
+				targets[pos] = v;
+
+				ids[pos] = inEdgeIds[i];
+
+			}
+
+		}
+
+		this.outOffsets = offsets;
+
+		this.outTargets = targets;
+
+		this.outEdgeIds = ids;
+
+		this.rowCount = n;
+
+		this.deadEntries = 0;
+
+		this.dirty = false;
+
+	}
+
+	/**
+	 * Private method that grows the vertex tables to hold id.
+	 *
+	 * @param id for input.
+	 */
+	private void reserveVertex(int id) {
+
+		if (id < vertexList.length) {
+
+			return;
+
+		}
+
+		int length = Math.max(id + 1, vertexList.length * 2);
+
+		this.vertexList = Arrays.copyOf(vertexList, length);
+
+		this.outDegrees = Arrays.copyOf(outDegrees, length);
+
+		this.inDegrees = Arrays.copyOf(inDegrees, length);
+
+	}
+
+	/**
+	 * Private method that grows the edge tables to hold id.
+	 *
+	 * @param id for input.
+	 */
+	private void reserveEdge(int id) {
+
+		if (id < edgeList.length) {
+
+			return;
+
+		}
+
+		int length = Math.max(id + 1, edgeList.length * 2);
+
+		this.edgeList = Arrays.copyOf(edgeList, length);
+
+		this.edgeSource = Arrays.copyOf(edgeSource, length);
+
+		this.edgeDest = Arrays.copyOf(edgeDest, length);
+
+	}
+
+	/**
+	 * Private method that reports whether edge is in this graph.
+	 *
+	 * @param edge for input.
+	 * @return true or false for output.
+	 */
+	private boolean hasEdge(GraphEdge edge) {
+
+		return (edge != null && edge.id >= 0 && edge.id < edgeBound && edgeList[edge.id] == edge);
+
+	}
+
+	/**
+	 * Method that returns a view of all edges in this graph.
+	 *
+	 * @return a Collection view of all edges in this graph for output.
+	 */
+	public Collection<GraphEdge> getEdges() {
+
+		LinkedList<GraphEdge> edgeListCollection = new LinkedList<>();
+
+		for (int i = 0; i < edgeBound; i++) {
+
+			if (edgeList[i] != null) {
+
+				edgeListCollection.add(edgeList[i]);
+
+			}
+
+		}
+
+		return (edgeListCollection);
+
+	}
+
+	/**
+	 * Method that returns a view of all vertices in this graph.
+	 *
+	 * @return a Collection view of all vertices in this graph for output.
+	 */
+	public Collection<GraphNode> getVertices() {
+
+		LinkedList<GraphNode> nodeListCollection = new LinkedList<>();
+
+		for (int i = 0; i < vertexBound; i++) {
+
+			if (vertexList[i] != null) {
+
+				nodeListCollection.add(vertexList[i]);
+
+			}
+
+		}
+
+		return (nodeListCollection);
+
+	}
+
+	/**
+	 * Method that returns the number of edges in this graph.
+	 *
+	 * @return the number of edges in this graph for output.
+	 */
+	public int getEdgeCount() {
+
+		return (this.edgeCount);
+
+	}
+
+	/**
+	 * Method that returns the number of vertices in this graph.
+	 *
+	 * @return the number of vertices in this graph for output.
+	 */
+	public int getVertexCount() {
+
+		return (this.vertexCount);
+
+	}
+
+	/**
+	 * Method that returns true if this graph's vertex collection contains vertex.
+	 *
+	 * @param vertex the vertex whose presence is being queried for input.
+	 * @return true iff this graph contains a vertex vertex for output.
+	 */
+	public boolean containsVertex(GraphNode vertex) {
+
+		if (vertex == null || vertex.id < 0 || vertex.id >= vertexBound) {
+
+			return (false);
+
+		}
+
+		return (vertexList[vertex.id] != null);
+
+	}
+
+	/**
+	 * Method that returns true if this graph's edge collection contains edge.
+	 *
+	 * @param edge for input.
+	 * @return true iff this graph contains an edge edge for output.
+	 */
+	public boolean containsEdge(GraphEdge edge) {
+
+		return (hasEdge(edge));
+
+	}
+
+	/**
+	 * Method that returns a Collection view of the incoming edges incident to
+	 * vertex in this graph.
+	 *
+	 * @param vertex the vertex whose incoming edges are to be returned for input.
+	 * @return a Collection view of the incoming edges incident to vertex in this
+	 *         graph for output.
+	 */
+	public Collection<GraphEdge> getInEdges(GraphNode vertex) {
+
+		LinkedList<GraphEdge> edgeListCollection = new LinkedList<>();
+
+		if (containsVertex(vertex) == false) {
+
+			return (edgeListCollection);
+
+		}
+
+		ensureBuilt();
+
+		if (vertex.id >= rowCount) {
+
+			return (edgeListCollection);
+
+		}
+
+		for (int i = inOffsets[vertex.id]; i < inOffsets[vertex.id + 1]; i++) {
+
+			GraphEdge edge = edgeList[inEdgeIds[i]];
+
+			if (edge != null) {
+
+				edgeListCollection.add(edge);
+
+			}
+
+		}
+
+		return (edgeListCollection);
+
+	}
+
+	/**
+	 * Method that returns a Collection view of the outgoing edges incident to
+	 * vertex in this graph.
+	 *
+	 * @param vertex the vertex whose outgoing edges are to be returned for input.
+	 * @return a Collection view of the outgoing edges incident to vertex in this
+	 *         graph for output.
+	 */
+	public Collection<GraphEdge> getOutEdges(GraphNode vertex) {
+
+		LinkedList<GraphEdge> edgeListCollection = new LinkedList<>();
+
+		if (containsVertex(vertex) == false) {
+
+			return (edgeListCollection);
+
+		}
+
+		ensureBuilt();
+
+		if (vertex.id >= rowCount) {
+
+			return (edgeListCollection);
+
+		}
+
+		for (int i = outOffsets[vertex.id]; i < outOffsets[vertex.id + 1]; i++) {
+
+			GraphEdge edge = edgeList[outEdgeIds[i]];
+
+			if (edge != null) {
+
+				edgeListCollection.add(edge);
+
+			}
+
+		}
+
+		return (edgeListCollection);
+
+	}
+
+	/**
+	 * Method that returns the number of incoming edges incident to vertex.
+	 *
+	 * @param vertex the vertex whose indegree is to be calculated for input.
+	 * @return the number of incoming edges incident to vertex for output.
+	 */
+	public int inDegree(GraphNode vertex) {
+
+		if (containsVertex(vertex) == false) {
+
+			return (0);
+
+		}
+
+		return (inDegrees[vertex.id]);
+
+	}
+
+	/**
+	 * Method that returns the number of outgoing edges incident to vertex.
+	 *
+	 * @param vertex the vertex whose outdegree is to be calculated for input.
+	 * @return the number of outgoing edges incident to vertex for output.
+	 */
+	public int outDegree(GraphNode vertex) {
+
+		if (containsVertex(vertex) == false) {
+
+			return (0);
+
+		}
+
+		return (outDegrees[vertex.id]);
+
+	}
+
+	/**
+	 * Method that returns the number of edges incident to vertex.
+	 *
+	 * @param vertex for input.
+	 * @return the degree of this node for output.
+	 */
+	public int degree(GraphNode vertex) {
+
+		return (inDegree(vertex) + outDegree(vertex));
+
+	}
+
+	/**
+	 * Method that returns the number of predecessors that vertex has in this
+	 * graph.
+	 *
+	 * @param vertex for input.
+	 * @return the number of predecessors for output.
+	 */
+	public int getPredecessorCount(GraphNode vertex) {
+
+		return (inDegree(vertex));
+
+	}
+
+	/**
+	 * Method that returns the number of successors that vertex has in this graph.
+	 *
+	 * @param vertex for input.
+	 * @return the number of successors for output.
+	 */
+	public int getSuccessorCount(GraphNode vertex) {
+
+		return (outDegree(vertex));
+
+	}
+
+	/**
+	 * Method that returns a Collection view of the predecessors of vertex in this
+	 * graph.
+	 *
+	 * @param vertex the vertex whose predecessors are to be returned for input.
+	 * @return a Collection view of the predecessors of vertex in this graph for
+	 *         output.
+	 */
+	public Collection<GraphNode> getPredecessors(GraphNode vertex) {
+
+		LinkedList<GraphNode> nodeListCollection = new LinkedList<>();
+
+		if (containsVertex(vertex) == false) {
+
+			return (nodeListCollection);
+
+		}
+
+		ensureBuilt();
+
+		if (vertex.id >= rowCount) {
+
+			return (nodeListCollection);
+
+		}
+
+		for (int i = inOffsets[vertex.id]; i < inOffsets[vertex.id + 1]; i++) {
+
+			if (edgeList[inEdgeIds[i]] != null) {
+
+				nodeListCollection.add(vertexList[inSources[i]]);
+
+			}
+
+		}
+
+		return (nodeListCollection);
+
+	}
+
+	/**
+	 * Method that returns a Collection view of the successors of vertex in this
+	 * graph.
+	 *
+	 * @param vertex the vertex whose successors are to be returned for input.
+	 * @return a Collection view of the successors of vertex in this graph for
+	 *         output.
+	 */
+	public Collection<GraphNode> getSuccessors(GraphNode vertex) {
+
+		LinkedList<GraphNode> nodeListCollection = new LinkedList<>();
+
+		if (containsVertex(vertex) == false) {
+
+			return (nodeListCollection);
+
+		}
+
+		ensureBuilt();
+
+		if (vertex.id >= rowCount) {
+
+			return (nodeListCollection);
+
+		}
+
+		for (int i = outOffsets[vertex.id]; i < outOffsets[vertex.id + 1]; i++) {
+
+			if (edgeList[outEdgeIds[i]] != null) {
+
+				nodeListCollection.add(vertexList[outTargets[i]]);
+
+			}
+
+		}
+
+		return (nodeListCollection);
+
+	}
+
+	/**
+	 * Method that returns true if v1 is a predecessor of v2 in this graph, that
+	 * is, if there is an edge from v1 to v2.
+	 *
+	 * @param v1 the first vertex to be queried for input.
+	 * @param v2 the second vertex to be queried for input.
+	 * @return true if v1 is a predecessor of v2, and false otherwise for output.
+	 */
+	public boolean isPredecessor(GraphNode v1, GraphNode v2) {
+
+		return (findEdge(v1, v2) != null);
+
+	}
+
+	/**
+	 * Method that returns true if v1 is a successor of v2 in this graph, that is,
+	 * if there is an edge from v2 to v1.
+	 *
+	 * @param v1 the first vertex to be queried for input.
+	 * @param v2 the second vertex to be queried for input.
+	 * @return true if v1 is a successor of v2, and false otherwise for output.
+	 */
+	public boolean isSuccessor(GraphNode v1, GraphNode v2) {
+
+		return (findEdge(v2, v1) != null);
+
+	}
+
+	/**
+	 * Method that returns the collection of vertices which are connected to
+	 * vertex via any edges in this graph, each reported once.
+	 *
+	 * @param vertex the vertex whose neighbors are to be returned for input.
+	 * @return the collection of vertices which are connected to vertex for output.
+	 */
+	public Collection<GraphNode> getNeighbors(GraphNode vertex) {
+
+		LinkedList<GraphNode> neighborsCollection = new LinkedList<>();
+
+		if (containsVertex(vertex) == false) {
+
+			return (neighborsCollection);
+
+		}
+
+		ensureBuilt();
+
+		if (vertex.id >= rowCount) {
+
+			return (neighborsCollection);
+
+		}
+
+		if (neighborMark.length < rowCount) {
+
+			this.neighborMark = new int[rowCount];
+
+			this.neighborStamp = 0;
+
+		}
+
+		this.neighborStamp++;
+
+		if (neighborStamp == 0) {
+
+			Arrays.fill(neighborMark, 0);
+
+			this.neighborStamp = 1;
+
+		}
+
+		for (int i = outOffsets[vertex.id]; i < outOffsets[vertex.id + 1]; i++) {
+
+			if (edgeList[outEdgeIds[i]] != null && neighborMark[outTargets[i]] != neighborStamp) {
+
+				neighborMark[outTargets[i]] = neighborStamp;
+
+				neighborsCollection.add(vertexList[outTargets[i]]);
+
+			}
+
+		}
+
+		for (int i = inOffsets[vertex.id]; i < inOffsets[vertex.id + 1]; i++) {
+
+			if (edgeList[inEdgeIds[i]] != null && neighborMark[inSources[i]] != neighborStamp) {
+
+				neighborMark[inSources[i]] = neighborStamp;
+
+				neighborsCollection.add(vertexList[inSources[i]]);
+
+			}
+
+		}
+
+		return (neighborsCollection);
+
+	}
+
+	/**
+	 * Method that returns the number of vertices that are adjacent to vertex.
+	 *
+	 * @param vertex the vertex whose neighbor count is to be returned for input.
+	 * @return the number of neighboring vertices for output.
+	 */
+	public int getNeighborCount(GraphNode vertex) {
+
+		return (getNeighbors(vertex).size());
+
+	}
+
+	/**
+	 * Method that returns true if v1 and v2 share an incident edge.
+	 *
+	 * @param v1 for input.
+	 * @param v2 for input.
+	 * @return true or false for output.
+	 */
+	public boolean isNeighbor(GraphNode v1, GraphNode v2) {
+
+		return (findEdge(v1, v2) != null || findEdge(v2, v1) != null);
+
+	}
+
+	/**
+	 * Method that returns the source of directedEdge, or null if it is not in
+	 * this graph.
+	 *
+	 * @param directedEdge for input.
+	 * @return the source of directedEdge or null for output.
+	 */
+	public GraphNode getSource(GraphEdge directedEdge) {
+
+		if (hasEdge(directedEdge) == false) {
+
+			return (null);
+
+		}
+
+		return (vertexList[edgeSource[directedEdge.id]]);
+
+	}
+
+	/**
+	 * Method that returns the destination of directedEdge, or null if it is not
+	 * in this graph.
+	 *
+	 * @param directedEdge for input.
+	 * @return the destination of directedEdge or null for output.
+	 */
+	public GraphNode getDest(GraphEdge directedEdge) {
+
+		if (hasEdge(directedEdge) == false) {
+
+			return (null);
+
+		}
+
+		return (vertexList[edgeDest[directedEdge.id]]);
+
+	}
+
+	/**
+	 * Method that returns true if vertex is the source of edge.
+	 *
+	 * @param vertex for input.
+	 * @param edge   for input.
+	 * @return true or false for output.
+	 */
+	public boolean isSource(GraphNode vertex, GraphEdge edge) {
+
+		return (hasEdge(edge) && vertex != null && edgeSource[edge.id] == vertex.id);
+
+	}
+
+	/**
+	 * Method that returns true if vertex is the destination of edge.
+	 *
+	 * @param vertex for input.
+	 * @param edge   for input.
+	 * @return true or false for output.
+	 */
+	public boolean isDest(GraphNode vertex, GraphEdge edge) {
+
+		return (hasEdge(edge) && vertex != null && edgeDest[edge.id] == vertex.id);
+
+	}
+
+	/**
+	 * Method that returns the endpoints of edge as a Pair.
+	 *
+	 * @param edge for input.
+	 * @return the endpoints of edge, or null if it is not in this graph, for
+	 *         output.
+	 */
+	public Pair<GraphNode> getEndpoints(GraphEdge edge) {
+
+		if (hasEdge(edge) == false) {
+
+			return (null);
+
+		}
+
+		return (new Pair<>(vertexList[edgeSource[edge.id]], vertexList[edgeDest[edge.id]]));
+
+	}
+
+	/**
+	 * Method that returns the vertex at the other end of edge from vertex.
+	 *
+	 * @param vertex for input.
+	 * @param edge   for input.
+	 * @return the opposite vertex or null for output.
+	 */
+	public GraphNode getOpposite(GraphNode vertex, GraphEdge edge) {
+
+		if (isSource(vertex, edge)) {
+
+			return (vertexList[edgeDest[edge.id]]);
+
+		}
+
+		if (isDest(vertex, edge)) {
+
+			return (vertexList[edgeSource[edge.id]]);
+
+		}
+
+		return (null);
+
+	}
+
+	/**
+	 * Method that returns the collection of edges in this graph which are
+	 * connected to vertex.
+	 *
+	 * @param vertex for input.
+	 * @return the collection of edges connected to vertex for output.
+	 */
+	public Collection<GraphEdge> getIncidentEdges(GraphNode vertex) {
+
+		LinkedList<GraphEdge> ret = new LinkedList<>();
+
+		ret.addAll(getInEdges(vertex));
+
+		ret.addAll(getOutEdges(vertex));
+
+		return (ret);
+
+	}
+
+	/**
+	 * Method that returns the collection of vertices in this graph which are
+	 * connected to edge.
+	 *
+	 * @param edge for input.
+	 * @return the collection of vertices connected to edge, or null if edge is not
+	 *         present, for output.
+	 */
+	public Collection<GraphNode> getIncidentVertices(GraphEdge edge) {
+
+		Pair<GraphNode> p = getEndpoints(edge);
+
+		if (p == null) {
+
+			return (null);
+
+		}
+
+		LinkedList<GraphNode> ret = new LinkedList<>();
+
+		ret.add(p.getFirst());
+
+		ret.add(p.getSecond());
+
+		return (ret);
+
+	}
+
+	/**
+	 * Method that returns the number of vertices that are incident to edge.
+	 *
+	 * @param edge for input.
+	 * @return the number of vertices that are incident to edge for output.
+	 */
+	public int getIncidentCount(GraphEdge edge) {
+
+		return (2);
+
+	}
+
+	/**
+	 * Method that returns an edge that connects v1 to v2.
+	 * Only the out row of v1 is scanned.
+	 *
+	 * @param v1 for input.
+	 * @param v2 for input.
+	 * @return an edge that connects v1 to v2, or null if no such edge exists for
+	 *         output.
+	 */
+	public GraphEdge findEdge(GraphNode v1, GraphNode v2) {
+
+		if (containsVertex(v1) == false || containsVertex(v2) == false) {
+
+			return (null);
+
+		}
+
+		ensureBuilt();
+
+		if (v1.id >= rowCount) {
+
+			return (null);
+
+		}
+
+		for (int i = outOffsets[v1.id]; i < outOffsets[v1.id + 1]; i++) {
+
+			if (outTargets[i] == v2.id && edgeList[outEdgeIds[i]] != null) {
+
+				return (edgeList[outEdgeIds[i]]);
+
+			}
+
+		}
+
+		return (null);
+
+	}
+
+	/**
+	 * Method that returns all edges that connect v1 to v2.
+	 *
+	 * @param v1 for input.
+	 * @param v2 for input.
+	 * @return a collection of the edges connecting v1 to v2, or null if there are
+	 *         none, for output.
+	 */
+	public Collection<GraphEdge> findEdgeSet(GraphNode v1, GraphNode v2) {
+
+		GraphEdge edge = findEdge(v1, v2);
+
+		if (edge == null) {
+
+			return (null);
+
+		}
+
+		LinkedList<GraphEdge> ret = new LinkedList<>();
+
+		for (int i = outOffsets[v1.id]; i < outOffsets[v1.id + 1]; i++) {
+
+			if (outTargets[i] == v2.id && edgeList[outEdgeIds[i]] != null) {
+
+				ret.add(edgeList[outEdgeIds[i]]);
+
+			}
+
+		}
+
+		return (ret);
+
+	}
+
+	/**
+	 * Method that returns true if vertex and edge are incident to each other.
+	 *
+	 * @param vertex for input.
+	 * @param edge   for input.
+	 * @return true if vertex and edge are incident to each other for output.
+	 */
+	public boolean isIncident(GraphNode vertex, GraphEdge edge) {
+
+		return (isSource(vertex, edge) || isDest(vertex, edge));
+
+	}
+
+	/**
+	 * Method that adds vertex to this graph.
+	 *
+	 * @param vertex the vertex to add for input.
+	 * @return true if the add is successful, and false if vertex was already in
+	 *         the graph for output.
+	 * @throws IllegalArgumentException if vertex is null or has a negative id.
+	 */
+	public boolean addVertex(GraphNode vertex) {
+
+		if (vertex == null || vertex.id < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		if (containsVertex(vertex)) {
+
+			return (false);
+
+		}
+
+		reserveVertex(vertex.id);
+
+		this.vertexList[vertex.id] = vertex;
+
+		this.vertexCount++;
+
+		if (vertex.id >= vertexBound) {
+
+			this.vertexBound = vertex.id + 1;
+
+			this.dirty = true;
+
+		}
+
+		return (true);
+
+	}
+
+	/**
+	 * Method that adds edge e to this graph such that it connects vertex v1 to v2.
+	 * The edge is staged and the rows are rebuilt on the next read.
+	 *
+	 * @param e  the edge to be added for input.
+	 * @param v1 the first vertex to be connected for input.
+	 * @param v2 the second vertex to be connected for input.
+	 * @return true if the add is successful, false if e is already in the graph
+	 *         for output.
+	 * @throws IllegalArgumentException if a vertex is missing or e is null or has
+	 *                                  a negative id.
+	 */
+	public boolean addEdge(GraphEdge e, GraphNode v1, GraphNode v2) {
+
+		if (containsVertex(v1) == false || containsVertex(v2) == false || e == null || e.id < 0) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		if (e.id < edgeBound && edgeList[e.id] != null) {
+
+			return (false);
+
+		}
+
+		reserveEdge(e.id);
+
+		this.edgeList[e.id] = e;
+
+		this.edgeSource[e.id] = v1.id;
+
+		this.edgeDest[e.id] = v2.id;
+
+		this.edgeBound = Math.max(edgeBound, e.id + 1);
+
+		this.edgeCount++;
+
+		this.outDegrees[v1.id]++;
+
+		this.inDegrees[v2.id]++;
+
+		this.dirty = true;
+
+		return (true);
+
+	}
+
+	/**
+	 * Method that adds edge e to this graph such that it connects vertex v1 to v2.
+	 * Only directed edges are allowed.
+	 *
+	 * @param e        for input.
+	 * @param v1       for input.
+	 * @param v2       for input.
+	 * @param edgeType for input.
+	 * @return true if the add is successful, false otherwise for output.
+	 */
+	public boolean addEdge(GraphEdge e, GraphNode v1, GraphNode v2, EdgeType edgeType) {
+
+		if (edgeType == EdgeType.UNDIRECTED) {
+
+			throw new IllegalArgumentException();
+
+		}
+
+		return (addEdge(e, v1, v2));
+
+	}
+
+	/**
+	 * Method that adds edge to this graph between the two given vertices.
+	 *
+	 * @param edge     for input.
+	 * @param vertices for input.
+	 * @return true if the add is successful, and false otherwise for output.
+	 */
+	public boolean addEdge(GraphEdge edge, Collection<? extends GraphNode> vertices) {
+
+		if (edge == null || vertices == null || vertices.size() != 2) {
+
+			return (false);
+
+		}
+
+		GraphNode[] vs = vertices.toArray(new GraphNode[2]);
+
+		return (addEdge(edge, vs[0], vs[1]));
+
+	}
+
+	/**
+	 * Method that adds edge to this graph between the two given vertices with
+	 * type edgeType.
+	 *
+	 * @param edge     for input.
+	 * @param vertices for input.
+	 * @param edgeType for input.
+	 * @return true if the add is successful, and false otherwise for output.
+	 */
+	public boolean addEdge(GraphEdge edge, Collection<? extends GraphNode> vertices, EdgeType edgeType) {
+
+		if (edge == null || vertices == null || vertices.size() != 2) {
+
+			return (false);
+
+		}
+
+		GraphNode[] vs = vertices.toArray(new GraphNode[2]);
+
+		return (addEdge(edge, vs[0], vs[1], edgeType));
+
+	}
+
+	/**
+	 * Method that removes edge from this graph in O(1).
+	 * The row entries stay behind and are skipped until the next compaction.
+	 *
+	 * @param edge the edge to remove for input.
+	 * @return true if the removal is successful, false otherwise for output.
+	 */
+	public boolean removeEdge(GraphEdge edge) {
+
+		if (hasEdge(edge) == false) {
+
+			return (false);
+
+		}
+
+		this.edgeList[edge.id] = null;
+
+		this.outDegrees[edgeSource[edge.id]]--;
+
+		this.inDegrees[edgeDest[edge.id]]--;
+
+		this.edgeCount--;
+
+		this.deadEntries++;
+
+		return (true);
+
+	}
+
+	/**
+	 * Method that removes vertex and every edge incident to it from this graph.
+	 *
+	 * @param vertex the vertex to remove for input.
+	 * @return true if the removal is successful, false otherwise for output.
+	 */
+	public boolean removeVertex(GraphNode vertex) {
+
+		if (containsVertex(vertex) == false) {
+
+			return (false);
+
+		}
+
+		for (GraphEdge edge : getIncidentEdges(vertex)) {
+
+			removeEdge(edge);
+
+		}
+
+		this.vertexList[vertex.id] = null;
+
+		this.vertexCount--;
+
+		return (true);
+
+	}
+
+	/**
+	 * Method that reports one more than the largest vertex index in use.
+	 * Indices are vertex ids.
+	 *
+	 * @return bound for output.
+	 */
+	public int vertexBound() {
+
+		return (this.vertexBound);
+
+	}
+
+	/**
+	 * Method that gets the vertex at index.
+	 *
+	 * @param index for input.
+	 * @return vertex or null for output.
+	 */
+	public GraphNode vertexAt(int index) {
+
+		if (index < 0 || index >= vertexBound) {
+
+			return (null);
+
+		}
+
+		return (vertexList[index]);
+
+	}
+
+	/**
+	 * Method that gets the index of vertex.
+	 *
+	 * @param vertex for input.
+	 * @return index or -1 for output.
+	 */
+	public int indexOf(GraphNode vertex) {
+
+		return (containsVertex(vertex) ? vertex.id : -1);
+
+	}
+
+	/**
+	 * Method that reports how many successors the vertex at index has.
+	 *
+	 * @param index for input.
+	 * @return successor count for output.
+	 */
+	public int successorCount(int index) {
+
+		return (vertexAt(index) == null ? 0 : outDegrees[index]);
+
+	}
+
+	/**
+	 * Method that reports how many predecessors the vertex at index has.
+	 *
+	 * @param index for input.
+	 * @return predecessor count for output.
+	 */
+	public int predecessorCount(int index) {
+
+		return (vertexAt(index) == null ? 0 : inDegrees[index]);
+
+	}
+
+	/**
+	 * Method that passes the index of every successor of the vertex at index to
+	 * action.
+	 *
+	 * @param index  for input.
+	 * @param action for input.
+	 */
+	public void forEachSuccessor(int index, IntConsumer action) {
+
+		if (vertexAt(index) == null) {
+
+			return;
+
+		}
+
+		ensureBuilt();
+
+		for (int i = outOffsets[index]; i < outOffsets[index + 1]; i++) {
+
+			if (edgeList[outEdgeIds[i]] != null) {
+
+				action.accept(outTargets[i]);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Method that passes the index of every predecessor of the vertex at index
+	 * to action.
+	 *
+	 * @param index  for input.
+	 * @param action for input.
+	 */
+	public void forEachPredecessor(int index, IntConsumer action) {
+
+		if (vertexAt(index) == null) {
+
+			return;
+
+		}
+
+		ensureBuilt();
+
+		for (int i = inOffsets[index]; i < inOffsets[index + 1]; i++) {
+
+			if (edgeList[inEdgeIds[i]] != null) {
+
+				action.accept(inSources[i]);
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Method that copies the successor indices of the vertex at index into buf.
+	 *
+	 * @param index for input.
+	 * @param buf   for input.
+	 * @return successor count for output.
+	 */
+	public int successorIds(int index, int[] buf) {
+
+		if (vertexAt(index) == null) {
+
+			return (0);
+
+		}
+
+		ensureBuilt();
+
+		int count = 0;
+
+		for (int i = outOffsets[index]; i < outOffsets[index + 1]; i++) {
+
+			if (edgeList[outEdgeIds[i]] != null) {
+
+				if (count < buf.length) {
+
+					buf[count] = outTargets[i];
+
+				}
+
+				count++;
+
+			}
+
+		}
+
+		return (count);
+
+	}
+
+	/**
+	 * Method that copies the predecessor indices of the vertex at index into
+	 * buf.
+	 *
+	 * @param index for input.
+	 * @param buf   for input.
+	 * @return predecessor count for output.
+	 */
+	public int predecessorIds(int index, int[] buf) {
+
+		if (vertexAt(index) == null) {
+
+			return (0);
+
+		}
+
+		ensureBuilt();
+
+		int count = 0;
+
+		for (int i = inOffsets[index]; i < inOffsets[index + 1]; i++) {
+
+			if (edgeList[inEdgeIds[i]] != null) {
+
+				if (count < buf.length) {
+
+					buf[count] = inSources[i];
+
+				}
+
+				count++;
+
+			}
+
+		}
+
+		return (count);
+
+	}
+
+	/**
+	 * Method that returns a string of the depth first traversal of the graph.
+	 * Rows are sorted, so the order matches ThreeTenGraph.
+	 *
+	 * @return a string representation of the depth first traversal, or an empty
+	 *         string if the graph is empty for output.
+	 */
+	public String depthFirstTraversal() {
+
+		DepthFirstSearch dfs = new DepthFirstSearch(this);
+
+		dfs.run();
+
+		return (dfs.toString());
+
+	}
+
+	/**
+	 * Method that returns a Factory that creates an instance of this graph type.
+	 *
+	 * @return instance of graph type for output.
+	 */
+	public static Factory<Graph<GraphNode, GraphEdge>> getFactory() {
+
+		return (new Factory<Graph<GraphNode, GraphEdge>>() {
+
+			public Graph<GraphNode, GraphEdge> create() {
+
+				return (new ThreeTenCsrGraph());
+
+			}
+
+		});
+
+	}
+
+	/**
+	 * Method that returns the edge type of edge in this graph.
+	 *
+	 * @param edge for input.
+	 * @return the EdgeType of edge for output.
+	 */
+	public EdgeType getEdgeType(GraphEdge edge) {
+
+		return (EdgeType.DIRECTED);
+
+	}
+
+	/**
+	 * Method that returns the default edge type for this graph.
+	 *
+	 * @return the default edge type for this graph for output.
+	 */
+	public EdgeType getDefaultEdgeType() {
+
+		return (EdgeType.DIRECTED);
+
+	}
+
+	/**
+	 * Method that returns the collection of edges in this graph which are of type
+	 * edgeType.
+	 *
+	 * @param edgeType for input.
+	 * @return the collection of edges, or null if the type is not allowed, for
+	 *         output.
+	 */
+	public Collection<GraphEdge> getEdges(EdgeType edgeType) {
+
+		if (edgeType == EdgeType.DIRECTED) {
+
+			return (getEdges());
+
+		}
+
+		return (null);
+
+	}
+
+	/**
+	 * Method that returns the number of edges of type edgeType in this graph.
+	 *
+	 * @param edgeType for input.
+	 * @return the number of edges of type edgeType for output.
+	 */
+	public int getEdgeCount(EdgeType edgeType) {
+
+		if (edgeType == EdgeType.DIRECTED) {
+
+			return (getEdgeCount());
+
+		}
+
+		return (0);
+
+	}
+
+	/**
+	 * Method for toString.
+	 *
+	 * @return string for output.
+	 */
+	@Override
+	public String toString() {
+
+		return (depthFirstTraversal());
+
+	}
+
+	/**
+	 * Main method for testing.
+	 *
+	 * @param args for input.
+	 */
+	public static void main(String[] args) {
+
+		ThreeTenGraph matrix = new ThreeTenGraph();
+
+		GraphNode[] nodes = new GraphNode[10];
+
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = new GraphNode(i);
+			matrix.addVertex(nodes[i]);
+		}
+
+		int[][] pairs = { { 0, 1 }, { 1, 2 }, { 3, 6 }, { 6, 7 }, { 8, 9 }, { 9, 0 }, { 2, 7 }, { 1, 8 } };
+
+		for (int i = 0; i < pairs.length; i++) {
+			matrix.addEdge(new GraphEdge(i), nodes[pairs[i][0]], nodes[pairs[i][1]]);
+		}
+
+		ThreeTenCsrGraph graph = ThreeTenCsrGraph.copyOf(matrix);
+
+		if (graph.getVertexCount() == 10 && graph.getEdgeCount() == 8 && graph.inDegree(nodes[0]) == 1
+				&& graph.outDegree(nodes[1]) == 2 && graph.toString().equals(matrix.toString())) {
+			System.out.println("Yay 1");
+		}
+
+		GraphEdge e = graph.findEdge(nodes[1], nodes[8]);
+
+		if (graph.removeEdge(e) && graph.findEdge(nodes[1], nodes[8]) == null && graph.getSource(e) == null
+				&& graph.getEdgeCount() == 7 && graph.getSuccessors(nodes[1]).size() == 1
+				&& graph.removeVertex(nodes[6]) && graph.getEdgeCount() == 5
+				&& graph.getPredecessors(nodes[7]).size() == 1) {
+			System.out.println("Yay 2");
+		}
+
+		ThreeTenCsrGraph big = new ThreeTenCsrGraph();
+
+		GraphNode[] chain = new GraphNode[100000];
+
+		for (int i = chain.length - 1; i >= 0; i--) {
+			chain[i] = new GraphNode(i);
+			big.addVertex(chain[i]);
+		}
+
+		for (int i = 0; i + 1 < chain.length; i++) {
+			big.addEdge(new GraphEdge(i), chain[i], chain[i + 1]);
+		}
+
+		TopologicalSort topSort = new TopologicalSort();
+
+		topSort.reset(big);
+		while (topSort.step()) {
+		}
+
+		if (chain[0].getRank() == 0 && chain[chain.length - 1].getRank() == chain.length - 1
+				&& big.getNeighborCount(chain[5]) == 2) {
+			System.out.println("Yay 3");
+		}
+
+
+		// the same edge set in every backend gives the same orientation answers
+		ThreeTenGraph dense = new ThreeTenGraph();
+		ThreeTenCsrGraph csr = new ThreeTenCsrGraph();
+		ThreeTenListGraph list = new ThreeTenListGraph();
+		GraphNode[] shared = new GraphNode[20];
+
+		for (int i = 0; i < shared.length; i++) {
+			shared[i] = new GraphNode(i);
+			dense.addVertex(shared[i]);
+			csr.addVertex(shared[i]);
+			list.addVertex(shared[i]);
+		}
+
+		java.util.Random random = new java.util.Random(310);
+
+		for (int id = 0; id < 80; id++) {
+			GraphEdge edge = new GraphEdge(id);
+			GraphNode from = shared[random.nextInt(shared.length)];
+			GraphNode to = shared[random.nextInt(shared.length)];
+			// the matrix keeps one edge per cell, so only distinct pairs are shared
+			if (dense.findEdge(from, to) == null && dense.addEdge(edge, from, to)) {
+				csr.addEdge(edge, from, to);
+				list.addEdge(edge, from, to);
+			}
+		}
+
+		boolean agree = true;
+
+		for (GraphNode v1 : shared) {
+			for (GraphNode v2 : shared) {
+				boolean forward = dense.findEdge(v1, v2) != null;
+				agree &= dense.isPredecessor(v1, v2) == forward && csr.isPredecessor(v1, v2) == forward
+						&& list.isPredecessor(v1, v2) == forward && dense.isSuccessor(v2, v1) == forward
+						&& csr.isSuccessor(v2, v1) == forward && list.isSuccessor(v2, v1) == forward;
+			}
+		}
+
+		if (agree && csr.getEdgeCount() == dense.getEdgeCount() && list.getEdgeCount() == dense.getEdgeCount()) {
+			System.out.println("Yay 4");
+		}
+
+	}
+
+}
@@ -3,40 +3,864 @@ import edu.uci.ics.jung.graph.DirectedGraph;
 import edu.uci.ics.jung.graph.util.Pair;
 import edu.uci.ics.jung.graph.util.EdgeType;
 import org.apache.commons.collections15.Factory;
+import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntConsumer;
 
 /**
  * This is the ThreeTenGraph class.
+ * The adjacency matrix is stored as one bitset per row and one per column,
+ * and edge objects are kept only for the cells that are set.
  * 
  * @author Aditi Reddy
  */
-class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphNode, GraphEdge> {
+class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphNode, GraphEdge>, IntGraph {
 
 	/**
 	 * Private static variable for max number of nodes.
 	 */
 	private static final int MAX_NUMBER_OF_NODES = 200;
 
+	/**
+	 * Private static variable for the number of longs in one adjacency row.
+	 */
+	private static final int WORDS = (MAX_NUMBER_OF_NODES + 63) >>> 6;
+
 	/**
 	 * Private variable for the vertix list.
 	 */
-	private GraphNode[] vertexList = null;
+	private GraphNode[] vertexList = null;
+
+	/**
+	 * Private variable for the adjacency matrix as bitsets; bit j of row i is
+	 * set when there is an edge from i to j.
+	 */
+	private long[][] outBits = null;
+
+	/**
+	 * Private variable for the transposed adjacency matrix; bit i of row j is
+	 * set when there is an edge from i to j.
+	 */
+	private long[][] inBits = null;
+
+	/**
+	 * Private variable for the edge objects of the set matrix cells.
+	 */
+	private EdgeTable edgeTable = null;
+
+	/**
+	 * Private variable for the number of edges.
+	 */
+	private int edgeCount = 0;
+
+	/**
+	 * Private variable for the number of vertices.
+	 */
+	private int vertexCount = 0;
+
+	/**
+	 * Private variable for the in-degree of each vertex.
+	 */
+	private int[] inDegrees = null;
+
+	/**
+	 * Private variable for the out-degree of each vertex.
+	 */
+	private int[] outDegrees = null;
+
+	/**
+	 * Private variable for the matrix cell (source * MAX_NUMBER_OF_NODES + dest)
+	 * of each edge, indexed by edge id; -1 if the id is not in the graph.
+	 */
+	private int[] edgeCells = null;
+
+	/**
+	 * Defualt constructor for ThreeTenGraph.
+	 */
+	public ThreeTenGraph() {
+
+		this.vertexList = new GraphNode[MAX_NUMBER_OF_NODES];
+
+		this.outBits = new long[MAX_NUMBER_OF_NODES][WORDS];
+
+		this.inBits = new long[MAX_NUMBER_OF_NODES][WORDS];
+
+		this.edgeTable = new EdgeTable();
+
+		this.inDegrees = new int[MAX_NUMBER_OF_NODES];
+
+		this.outDegrees = new int[MAX_NUMBER_OF_NODES];
+
+		this.edgeCells = new int[MAX_NUMBER_OF_NODES];
+
+		Arrays.fill(this.edgeCells, -1);
+
+	}
+
+	/**
+	 * This is the EdgeTable class.
+	 * It maps matrix cells to edge objects with linear probing, so only cells
+	 * that hold an edge take space. Removal shifts later entries of the same
+	 * run back instead of leaving tombstones.
+	 */
+	private static class EdgeTable {
+
+		/**
+		 * Private variable for the cells.
+		 */
+		private int[] cells = new int[16];
+
+		/**
+		 * Private variable for the edges, null marks a free bucket.
+		 */
+		private GraphEdge[] edges = new GraphEdge[16];
+
+		/**
+		 * Private variable for the number of entries.
+		 */
+		private int size = 0;
+
+		/**
+		 * Private method that picks the home bucket of cell.
+		 * 
+		 * @param cell   for input.
+		 * @param length for input.
+		 * @return bucket for output.
+		 */
+		private static int bucket(int cell, int length) {
+
+			int h = cell * 0x9E3779B9;
+
+			return ((h ^ (h >>> 16)) & (length - 1));
+
+		}
+
+		/**
+		 * Method that finds the edge in cell.
+		 * 
+		 * @param cell for input.
+		 * @return edge or null for output.
+		 */
+		GraphEdge get(int cell) {
+
+			int mask = cells.length - 1;
+
+			for (int b = bucket(cell, cells.length); edges[b] != null; b = (b + 1) & mask) {
+
+				if (cells[b] == cell) {
+
+					return (edges[b]);
+
+				}
+
+			}
+
+			return (null);
+
+		}
+
+		/**
+		 * Method that stores edge in cell, replacing what was there.
+		 * 
+		 * @param cell for input.
+		 * @param edge for input.
+		 */
+		void put(int cell, GraphEdge edge) {
+
+			if (2 * (size + 1) > cells.length) {
+
+				int[] oldCells = cells;
+
+				GraphEdge[] oldEdges = edges;
+
+				this.cells = new int[oldCells.length * 2];
+
+				this.edges = new GraphEdge[oldCells.length * 2];
+
+				this.size = 0;
+
+				for (int i = 0; i < oldCells.length; i++) {
+
+					if (oldEdges[i] != null) {
+
+						put(oldCells[i], oldEdges[i]);
+
+					}
+
+				}
+
+			}
+
+			int mask = cells.length - 1;
+
+			int b = bucket(cell, cells.length);
+
+			while (edges[b] != null && cells[b] != cell) {
+
+				b = (b + 1) & mask;
+
+			}
+
+			if (edges[b] == null) {
+
+				this.size++;
+
+			}
+
+			cells[b] = cell;
+
+			edges[b] = edge;
+
+		}
+
+		/**
+		 * Method that empties cell.
+		 * 
+		 * @param cell for input.
+		 */
+		void remove(int cell) {
+
+			int mask = cells.length - 1;
+
+			int b = bucket(cell, cells.length);
+
+			while (edges[b] != null && cells[b] != cell) {
+
+				b = (b + 1) & mask;
+
+			}
+
+			if (edges[b] == null) {
+
+				return;
+
+			}
+
+			edges[b] = null;
+
+			this.size--;
+
+			for (int j = (b + 1) & mask; edges[j] != null; j = (j + 1) & mask) {
+
+				int home = bucket(cells[j], cells.length);
+
+				// move j back into the hole unless its home lies after the hole
+				if (((j - home) & mask) >= ((j - b) & mask)) {
+
+					cells[b] = cells[j];
+
+					edges[b] = edges[j];
+
+					edges[j] = null;
+
+					b = j;
+
+				}
+
+			}
+
+		}
+
+		/**
+		 * Method that finds the cell holding edge by scanning the table.
+		 * 
+		 * @param edge for input.
+		 * @return cell or -1 for output.
+		 */
+		int cellOf(GraphEdge edge) {
+
+			for (int i = 0; i < edges.length; i++) {
+
+				if (edges[i] == edge) {
+
+					return (cells[i]);
+
+				}
+
+			}
+
+			return (-1);
+
+		}
+
+	}
+
+	/**
+	 * Private method that reports whether there is an edge from source to dest.
+	 * 
+	 * @param source for input.
+	 * @param dest   for input.
+	 * @return true or false for output.
+	 */
+	private boolean hasCell(int source, int dest) {
+
+		return ((outBits[source][dest >>> 6] & (1L << dest)) != 0);
+
+	}
+
+	/**
+	 * Private method that gets the edge from source to dest.
+	 * 
+	 * @param source for input.
+	 * @param dest   for input.
+	 * @return edge or null for output.
+	 */
+	private GraphEdge edgeAt(int source, int dest) {
+
+		if (!hasCell(source, dest)) {
+
+			return (null);
+
+		}
+
+		return (edgeTable.get(source * MAX_NUMBER_OF_NODES + dest));
+
+	}
+
+	/**
+	 * Private method that finds the matrix cell holding edge.
+	 * Edges with a negative id are not indexed and are found by scanning.
+	 * 
+	 * @param edge for input.
+	 * @return cell, or -1 if edge is not in the graph, for output.
+	 */
+	private int edgeCell(GraphEdge edge) {
+
+		if (edge == null) {
+
+			return (-1);
+
+		}
+
+		if (edge.id >= 0) {
+
+			if (edge.id >= edgeCells.length) {
+
+				return (-1);
+
+			}
+
+			int cell = edgeCells[edge.id];
+
+			if (cell >= 0 && edgeAt(cell / MAX_NUMBER_OF_NODES, cell % MAX_NUMBER_OF_NODES) == edge) {
+
+				return (cell);
+
+			}
+
+			return (-1);
+
+		}
+
+		return (edgeTable.cellOf(edge));
+
+	}
+
+	/**
+	 * Private method that records the cell of edge in the index.
+	 * 
+	 * @param edge for input.
+	 * @param cell for input.
+	 */
+	private void indexEdge(GraphEdge edge, int cell) {
+
+		if (edge.id < 0) {
+
+			return;
+
+		}
+
+		if (edge.id >= edgeCells.length) {
+
+			int oldLength = edgeCells.length;
+
+			this.edgeCells = Arrays.copyOf(edgeCells, Math.max(edge.id + 1, oldLength * 2));
+
+			Arrays.fill(this.edgeCells, oldLength, edgeCells.length, -1);
+
+		}
+
+		this.edgeCells[edge.id] = cell;
+
+	}
+
+	/**
+	 * Private method that clears the matrix cell at source and dest and keeps
+	 * the counters and edge index in step.
+	 * 
+	 * @param source for input.
+	 * @param dest   for input.
+	 */
+	private void clearCell(int source, int dest) {
+
+		int cell = source * MAX_NUMBER_OF_NODES + dest;
+
+		GraphEdge edge = this.edgeTable.get(cell);
+
+		this.edgeTable.remove(cell);
+
+		this.outBits[source][dest >>> 6] &= ~(1L << dest);
+
+		this.inBits[dest][source >>> 6] &= ~(1L << source);
+
+		if (edge.id >= 0 && edge.id < edgeCells.length && edgeCells[edge.id] == cell) {
+
+			this.edgeCells[edge.id] = -1;
+
+		}
+
+		this.edgeCount--;
+
+		this.outDegrees[source]--;
+
+		this.inDegrees[dest]--;
+
+	}
+
+	/**
+	 * This is the BitView class.
+	 * It is a read-only collection over the set bits of a vertex's row, column
+	 * or both. Nothing is copied; the bits are read as the iterator advances,
+	 * so the graph must not be changed while a view is being iterated.
+	 * 
+	 * @param <T> for use of generics.
+	 */
+	private abstract class BitView<T> extends AbstractCollection<T> {
+
+		/**
+		 * Private variable for the vertex whose bits are viewed.
+		 */
+		final int vertex;
+
+		/**
+		 * Private variable that is true to include the row (successors).
+		 */
+		final boolean out;
+
+		/**
+		 * Private variable that is true to include the column (predecessors).
+		 */
+		final boolean in;
+
+		/**
+		 * Constructor for a view of vertex.
+		 * 
+		 * @param vertex for input.
+		 * @param out    for input.
+		 * @param in     for input.
+		 */
+		BitView(int vertex, boolean out, boolean in) {
+
+			this.vertex = vertex;
+
+			this.out = out;
+
+			this.in = in;
+
+		}
+
+		/**
+		 * Method that reads word w of the viewed bits.
+		 * 
+		 * @param w for input.
+		 * @return word for output.
+		 */
+		long word(int w) {
+
+			return ((out ? outBits[vertex][w] : 0L) | (in ? inBits[vertex][w] : 0L));
+
+		}
+
+		/**
+		 * Method that maps a set bit to the item it stands for.
+		 * 
+		 * @param index for input.
+		 * @return item for output.
+		 */
+		abstract T item(int index);
+
+		/**
+		 * Method that returns an iterator over the items.
+		 * 
+		 * @return iterator for output.
+		 */
+		@Override
+		public Iterator<T> iterator() {
+
+			return (new Iterator<T>() {
+
+				private int w = 0;
+
+				private long bits = word(0);
+
+				public boolean hasNext() {
+
+					while (bits == 0 && w + 1 < WORDS) {
+
+						bits = word(++w);
+
+					}
+
+					return (bits != 0);
+
+				}
+
+				public T next() {
+
+					if (!hasNext()) {
+
+						throw new NoSuchElementException();
+
+					}
+
+					int index = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+					bits &= bits - 1;
+
+					return (item(index));
+
+				}
+
+			});
+
+		}
+
+		/**
+		 * Method that counts the items without iterating them.
+		 * 
+		 * @return size for output.
+		 */
+		@Override
+		public int size() {
+
+			if (!in) {
+
+				return (outDegrees[vertex]);
+
+			}
+
+			if (!out) {
+
+				return (inDegrees[vertex]);
+
+			}
+
+			int count = 0;
+
+			for (int w = 0; w < WORDS; w++) {
+
+				count += Long.bitCount(word(w));
+
+			}
+
+			return (count);
+
+		}
+
+	}
+
+	/**
+	 * This is the NodeView class.
+	 * It views the successors, predecessors or neighbors of a vertex.
+	 */
+	private final class NodeView extends BitView<GraphNode> {
+
+		/**
+		 * Constructor for a view of vertex.
+		 * 
+		 * @param vertex for input.
+		 * @param out    for input.
+		 * @param in     for input.
+		 */
+		NodeView(int vertex, boolean out, boolean in) {
+
+			super(vertex, out, in);
+
+		}
+
+		/**
+		 * Method that maps a set bit to its vertex.
+		 * 
+		 * @param index for input.
+		 * @return vertex for output.
+		 */
+		@Override
+		GraphNode item(int index) {
+
+			return (vertexList[index]);
+
+		}
+
+		/**
+		 * Method that tests membership with one bit lookup.
+		 * 
+		 * @param o for input.
+		 * @return true or false for output.
+		 */
+		@Override
+		public boolean contains(Object o) {
+
+			if (!(o instanceof GraphNode) || !containsVertex((GraphNode) o)) {
+
+				return (false);
+
+			}
+
+			int id = ((GraphNode) o).id;
+
+			return ((word(id >>> 6) & (1L << id)) != 0);
+
+		}
+
+	}
+
+	/**
+	 * This is the EdgeView class.
+	 * It views the out-edges or in-edges of a vertex.
+	 */
+	private final class EdgeView extends BitView<GraphEdge> {
+
+		/**
+		 * Constructor for a view of vertex.
+		 * 
+		 * @param vertex for input.
+		 * @param out    for input.
+		 */
+		EdgeView(int vertex, boolean out) {
+
+			super(vertex, out, !out);
+
+		}
+
+		/**
+		 * Method that maps a set bit to its edge.
+		 * 
+		 * @param index for input.
+		 * @return edge for output.
+		 */
+		@Override
+		GraphEdge item(int index) {
+
+			if (out) {
+
+				return (edgeTable.get(vertex * MAX_NUMBER_OF_NODES + index));
+
+			}
+
+			return (edgeTable.get(index * MAX_NUMBER_OF_NODES + vertex));
+
+		}
+
+		/**
+		 * Method that tests membership through the edge index.
+		 * 
+		 * @param o for input.
+		 * @return true or false for output.
+		 */
+		@Override
+		public boolean contains(Object o) {
+
+			if (!(o instanceof GraphEdge)) {
+
+				return (false);
+
+			}
+
+			int cell = edgeCell((GraphEdge) o);
+
+			if (cell < 0) {
+
+				return (false);
+
+			}
+
+			return ((out ? cell / MAX_NUMBER_OF_NODES : cell % MAX_NUMBER_OF_NODES) == vertex);
+
+		}
+
+	}
+
+	/**
+	 * Method that reports one more than the largest vertex index in use.
+	 * Indices are vertex ids.
+	 * 
+	 * @return bound for output.
+	 */
+	public int vertexBound() {
+
+		return (MAX_NUMBER_OF_NODES);
+
+	}
+
+	/**
+	 * Method that gets the vertex at index.
+	 * 
+	 * @param index for input.
+	 * @return vertex or null for output.
+	 */
+	public GraphNode vertexAt(int index) {
+
+		if (index < 0 || index >= MAX_NUMBER_OF_NODES) {
+
+			return (null);
+
+		}
+
+		return (vertexList[index]);
+
+	}
+
+	/**
+	 * Method that gets the index of vertex.
+	 * 
+	 * @param vertex for input.
+	 * @return index or -1 for output.
+	 */
+	public int indexOf(GraphNode vertex) {
+
+		return (containsVertex(vertex) ? vertex.id : -1);
+
+	}
+
+	/**
+	 * Method that reports how many successors the vertex at index has.
+	 * 
+	 * @param index for input.
+	 * @return successor count for output.
+	 */
+	public int successorCount(int index) {
+
+		return (vertexAt(index) == null ? 0 : outDegrees[index]);
+
+	}
+
+	/**
+	 * Method that reports how many predecessors the vertex at index has.
+	 * 
+	 * @param index for input.
+	 * @return predecessor count for output.
+	 */
+	public int predecessorCount(int index) {
+
+		return (vertexAt(index) == null ? 0 : inDegrees[index]);
+
+	}
+
+	/**
+	 * Method that passes the index of every successor of the vertex at index to
+	 * action, in increasing order.
+	 * 
+	 * @param index  for input.
+	 * @param action for input.
+	 */
+	public void forEachSuccessor(int index, IntConsumer action) {
+
+		if (vertexAt(index) != null) {
+
+			forEachBit(outBits[index], action);
+
+		}
+
+	}
+
+	/**
+	 * Method that passes the index of every predecessor of the vertex at index
+	 * to action, in increasing order.
+	 * 
+	 * @param index  for input.
+	 * @param action for input.
+	 */
+	public void forEachPredecessor(int index, IntConsumer action) {
+
+		if (vertexAt(index) != null) {
+
+			forEachBit(inBits[index], action);
+
+		}
+
+	}
 
 	/**
-	 * Private variable for the matrix.
+	 * Method that copies the successor indices of the vertex at index into buf.
+	 * 
+	 * @param index for input.
+	 * @param buf   for input.
+	 * @return successor count for output.
 	 */
-	private GraphEdge[][] matrix = null;
+	public int successorIds(int index, int[] buf) {
+
+		return (vertexAt(index) == null ? 0 : copyBits(outBits[index], buf));
+
+	}
 
 	/**
-	 * Defualt constructor for ThreeTenGraph.
+	 * Method that copies the predecessor indices of the vertex at index into
+	 * buf.
+	 * 
+	 * @param index for input.
+	 * @param buf   for input.
+	 * @return predecessor count for output.
 	 */
-	public ThreeTenGraph() {
+	public int predecessorIds(int index, int[] buf) {
 
-		this.vertexList = new GraphNode[MAX_NUMBER_OF_NODES];
+		return (vertexAt(index) == null ? 0 : copyBits(inBits[index], buf));
+
+	}
+
+	/**
+	 * Private static method that passes every set bit of row to action.
+	 * 
+	 * @param row    for input.
+	 * @param action for input.
+	 */
+	private static void forEachBit(long[] row, IntConsumer action) {
+
+		for (int w = 0; w < WORDS; w++) {
+
+			for (long bits = row[w]; bits != 0; bits &= bits - 1) {
 
-		this.matrix = new GraphEdge[MAX_NUMBER_OF_NODES][MAX_NUMBER_OF_NODES];
+				action.accept((w << 6) + Long.numberOfTrailingZeros(bits));
+
+			}
+
+		}
+
+	}
+
+	/**
+	 * Private static method that copies the set bits of row into buf.
+	 * 
+	 * @param row for input.
+	 * @param buf for input.
+	 * @return number of set bits for output.
+	 */
+	private static int copyBits(long[] row, int[] buf) {
+
+		int count = 0;
+
+		for (int w = 0; w < WORDS; w++) {
+
+			for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+
+				if (count < buf.length) {
+
+					buf[count] = (w << 6) + Long.numberOfTrailingZeros(bits);
+
+				}
+
+				count++;
+
+			}
+
+		}
+
+		return (count);
 
 	}
 
@@ -51,13 +875,11 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
 
-			for (int j = 0; j < MAX_NUMBER_OF_NODES; j++) {
-
-				GraphEdge edge = this.matrix[i][j];
+			for (int w = 0; w < WORDS; w++) {
 
-				if (edge != null) {
+				for (long bits = outBits[i][w]; bits != 0; bits &= bits - 1) {
 
-					edgeListCollection.add(edge);
+					edgeListCollection.add(edgeTable.get(i * MAX_NUMBER_OF_NODES + (w << 6) + Long.numberOfTrailingZeros(bits)));
 
 				}
 
@@ -101,7 +923,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 */
 	public int getEdgeCount() {
 
-		return (this.getEdges().size());
+		return (this.edgeCount);
 
 	}
 
@@ -112,7 +934,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 */
 	public int getVertexCount() {
 
-		return (this.getVertices().size());
+		return (this.vertexCount);
 
 	}
 
@@ -143,33 +965,25 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 * Method that returns a Collection view of the incoming edges incident to
 	 * vertex in this graph.
 	 * 
+	 * <p>
+	 * The view is live and read-only. It is not a snapshot: it shows edges
+	 * added or removed after it was returned. Adding or removing edges at
+	 * vertex while iterating it gives undefined results, so copy it into a new
+	 * collection first when the loop changes the graph.
+	 * 
 	 * @param vertex the vertex whose incoming edges are to be returned for input.
 	 * @return a Collection view of the incoming edges incident to vertex in this
 	 *         graph for output.
 	 */
 	public Collection<GraphEdge> getInEdges(GraphNode vertex) {
 
-		LinkedList<GraphEdge> edgeListCollection = new LinkedList<>();
-
 		if (containsVertex(vertex) == false) {
 
-			return (edgeListCollection);
-
-		}
-
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			GraphEdge edge = matrix[i][vertex.id];
-
-			if (edge != null) {
-
-				edgeListCollection.add(edge);
-
-			}
+			return (Collections.emptyList());
 
 		}
 
-		return (edgeListCollection);
+		return (new EdgeView(vertex.id, false));
 
 	}
 
@@ -177,33 +991,25 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 * Method that returns a Collection view of the outgoing edges incident to
 	 * vertex in this graph.
 	 * 
+	 * <p>
+	 * The view is live and read-only. It is not a snapshot: it shows edges
+	 * added or removed after it was returned. Adding or removing edges at
+	 * vertex while iterating it gives undefined results, so copy it into a new
+	 * collection first when the loop changes the graph.
+	 * 
 	 * @param vertex the vertex whose outgoing edges are to be returned for input.
 	 * @return a Collection view of the outgoing edges incident to vertex in this
 	 *         graph for output.
 	 */
 	public Collection<GraphEdge> getOutEdges(GraphNode vertex) {
 
-		LinkedList<GraphEdge> edgeListCollection = new LinkedList<>();
-
 		if (containsVertex(vertex) == false) {
 
-			return (edgeListCollection);
-
-		}
-
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			GraphEdge edge = matrix[vertex.id][i];
-
-			if (edge != null) {
-
-				edgeListCollection.add(edge);
-
-			}
+			return (Collections.emptyList());
 
 		}
 
-		return (edgeListCollection);
+		return (new EdgeView(vertex.id, true));
 
 	}
 
@@ -221,7 +1027,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		return (getInEdges(vertex).size());
+		return (this.inDegrees[vertex.id]);
 
 	}
 
@@ -239,7 +1045,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		return (getOutEdges(vertex).size());
+		return (this.outDegrees[vertex.id]);
 
 	}
 
@@ -247,33 +1053,25 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 * Method that returns a Collection view of the predecessors of vertex in this
 	 * graph.
 	 * 
+	 * <p>
+	 * The view is live and read-only. It is not a snapshot: it follows edges
+	 * added or removed after it was returned. Adding or removing edges at
+	 * vertex while iterating it gives undefined results, so copy it into a new
+	 * collection first when the loop changes the graph.
+	 * 
 	 * @param vertex the vertex whose predecessors are to be returned for input.
 	 * @return a Collection view of the predecessors of vertex in this graph for
 	 *         output.
 	 */
 	public Collection<GraphNode> getPredecessors(GraphNode vertex) {
 
-		LinkedList<GraphNode> nodeListCollection = new LinkedList<>();
-
 		if (containsVertex(vertex) == false) {
 
-			return (nodeListCollection);
-
-		}
-
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			GraphEdge edge = matrix[i][vertex.id];
-
-			if (edge != null) {
-
-				nodeListCollection.add(vertexList[i]);
-
-			}
+			return (Collections.emptyList());
 
 		}
 
-		return (nodeListCollection);
+		return (new NodeView(vertex.id, false, true));
 
 	}
 
@@ -281,38 +1079,31 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 * Method that returns a Collection view of the successors of vertex in this
 	 * graph.
 	 * 
-	 * @param vertex the vertex whose predecessors are to be returned for input.
+	 * <p>
+	 * The view is live and read-only. It is not a snapshot: it follows edges
+	 * added or removed after it was returned. Adding or removing edges at
+	 * vertex while iterating it gives undefined results, so copy it into a new
+	 * collection first when the loop changes the graph.
+	 * 
+	 * @param vertex the vertex whose successors are to be returned for input.
 	 * @return a Collection view of the successors of vertex in this graph for
 	 *         output.
 	 */
 	public Collection<GraphNode> getSuccessors(GraphNode vertex) {
 
-		LinkedList<GraphNode> nodeListCollection = new LinkedList<>();
-
 		if (containsVertex(vertex) == false) {
 
-			return (nodeListCollection);
-
-		}
-
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			GraphEdge edge = matrix[vertex.id][i];
-
-			if (edge != null) {
-
-				nodeListCollection.add(vertexList[i]);
-
-			}
+			return (Collections.emptyList());
 
 		}
 
-		return (nodeListCollection);
+		return (new NodeView(vertex.id, true, false));
 
 	}
 
 	/**
-	 * Method that returns true if v1 is a predecessor of v2 in this graph.
+	 * Method that returns true if v1 is a predecessor of v2 in this graph, that
+	 * is, if there is an edge from v1 to v2.
 	 * 
 	 * @param v1 the first vertex to be queried for input.
 	 * @param v2 the second vertex to be queried for input.
@@ -325,7 +1116,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 			return (false);
 		}
 
-		if (matrix[v2.id][v1.id] != null) {
+		if (hasCell(v1.id, v2.id)) {
 
 			return (true);
 		}
@@ -335,7 +1126,8 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	}
 
 	/**
-	 * Method that returns true if v1 is a successor of v2 in this graph.
+	 * Method that returns true if v1 is a successor of v2 in this graph, that is,
+	 * if there is an edge from v2 to v1.
 	 * 
 	 * @param v1 the first vertex to be queried for input.
 	 * @param v2 the second vertex to be queried for input.
@@ -349,7 +1141,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		if (matrix[v1.id][v2.id] != null) {
+		if (hasCell(v2.id, v1.id)) {
 
 			return (true);
 
@@ -365,45 +1157,25 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 * If vertex is connected to itself with a self-loop, then it will be included
 	 * in the collection returned.
 	 * 
+	 * <p>
+	 * The view is live and read-only. It is not a snapshot: it follows edges
+	 * added or removed after it was returned. Adding or removing edges at
+	 * vertex while iterating it gives undefined results, so copy it into a new
+	 * collection first when the loop changes the graph.
+	 * 
 	 * @param vertex the vertex whose neighbors are to be returned for input.
-	 * @return the collection of vertices which are connected to vertex, or null if
-	 *         vertex is not present for output.
+	 * @return the collection of vertices which are connected to vertex, empty if
+	 *         vertex is not present, for output.
 	 */
 	public Collection<GraphNode> getNeighbors(GraphNode vertex) {
 
-		LinkedList<GraphNode> neighborsCollection = new LinkedList<>();
-
 		if (containsVertex(vertex) == false) {
 
-			return (neighborsCollection);
-
-		}
-
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			GraphEdge edge = matrix[vertex.id][i];
-
-			if (edge != null) {
-
-				neighborsCollection.add(vertexList[i]);
-
-			}
-
-			else {
-
-				edge = matrix[i][vertex.id];
-
-				if (edge != null) {
-
-					neighborsCollection.add(vertexList[i]);
-
-				}
-
-			}
+			return (Collections.emptyList());
 
 		}
 
-		return (neighborsCollection);
+		return (new NodeView(vertex.id, true, true));
 
 	}
 
@@ -433,23 +1205,15 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 */
 	public GraphNode getSource(GraphEdge directedEdge) {
 
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			for (int j = 0; j < MAX_NUMBER_OF_NODES; j++) {
-
-				GraphEdge edge = matrix[i][j];
-
-				if (edge == directedEdge) {
+		int cell = edgeCell(directedEdge);
 
-					return (vertexList[i]);
+		if (cell < 0) {
 
-				}
-
-			}
+			return (null);
 
 		}
 
-		return (null);
+		return (vertexList[cell / MAX_NUMBER_OF_NODES]);
 
 	}
 
@@ -467,23 +1231,15 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 */
 	public GraphNode getDest(GraphEdge directedEdge) {
 
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			for (int j = 0; j < MAX_NUMBER_OF_NODES; j++) {
-
-				GraphEdge edge = matrix[i][j];
-
-				if (edge == directedEdge) {
+		int cell = edgeCell(directedEdge);
 
-					return (vertexList[j]);
+		if (cell < 0) {
 
-				}
-
-			}
+			return (null);
 
 		}
 
-		return (null);
+		return (vertexList[cell % MAX_NUMBER_OF_NODES]);
 
 	}
 
@@ -504,7 +1260,7 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		return (matrix[v1.id][v2.id]);
+		return (edgeAt(v1.id, v2.id));
 
 	}
 
@@ -523,27 +1279,15 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			GraphEdge tempEdge = matrix[vertex.id][i];
-
-			if (tempEdge == edge) {
-
-				return (true);
-
-			}
-
-			tempEdge = matrix[i][vertex.id];
-
-			if (tempEdge == edge) {
+		int cell = edgeCell(edge);
 
-				return (true);
+		if (cell < 0) {
 
-			}
+			return (false);
 
 		}
 
-		return (false);
+		return (cell / MAX_NUMBER_OF_NODES == vertex.id || cell % MAX_NUMBER_OF_NODES == vertex.id);
 
 	}
 
@@ -557,7 +1301,8 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 * @param e  the edge to be added for input.
 	 * @param v1 the first vertex to be connected for input.
 	 * @param v2 the second vertex to be connected for input.
-	 * @return true if the add is successful, false otherwise for output.
+	 * @return true if the add is successful, false if a different edge with the
+	 *         same id is already in the graph for output.
 	 */
 	public boolean addEdge(GraphEdge e, GraphNode v1, GraphNode v2) {
 
@@ -567,7 +1312,41 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		this.matrix[v1.id][v2.id] = e;
+		// an edge id sits in one cell at a time, so adding it again moves it
+		int oldCell = edgeCell(e);
+
+		// ids key the edge index, so a different edge reusing a live id is refused
+		if (oldCell < 0 && e.id >= 0 && e.id < edgeCells.length && edgeCells[e.id] >= 0) {
+
+			return (false);
+
+		}
+
+		if (oldCell >= 0) {
+
+			clearCell(oldCell / MAX_NUMBER_OF_NODES, oldCell % MAX_NUMBER_OF_NODES);
+
+		}
+
+		if (hasCell(v1.id, v2.id)) {
+
+			clearCell(v1.id, v2.id);
+
+		}
+
+		this.edgeTable.put(v1.id * MAX_NUMBER_OF_NODES + v2.id, e);
+
+		this.outBits[v1.id][v2.id >>> 6] |= 1L << v2.id;
+
+		this.inBits[v2.id][v1.id >>> 6] |= 1L << v1.id;
+
+		this.edgeCount++;
+
+		this.outDegrees[v1.id]++;
+
+		this.inDegrees[v2.id]++;
+
+		indexEdge(e, v1.id * MAX_NUMBER_OF_NODES + v2.id);
 
 		return (true);
 
@@ -594,6 +1373,12 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 			throw new IllegalArgumentException();
 		}
 
+		if (this.vertexList[vertex.id] == null) {
+
+			this.vertexCount++;
+
+		}
+
 		this.vertexList[vertex.id] = vertex;
 
 		return (true);
@@ -609,25 +1394,17 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 	 */
 	public boolean removeEdge(GraphEdge edge) {
 
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			for (int j = 0; j < MAX_NUMBER_OF_NODES; j++) {
-
-				GraphEdge tempEdge = matrix[i][j];
-
-				if (tempEdge == edge) {
-
-					matrix[i][j] = null;
+		int cell = edgeCell(edge);
 
-					return (true);
+		if (cell < 0) {
 
-				}
-
-			}
+			return (false);
 
 		}
 
-		return (false);
+		clearCell(cell / MAX_NUMBER_OF_NODES, cell % MAX_NUMBER_OF_NODES);
+
+		return (true);
 
 	}
 
@@ -646,78 +1423,44 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 
 		}
 
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
+		for (int w = 0; w < WORDS; w++) {
 
-			this.matrix[vertex.id][i] = null;
+			while (outBits[vertex.id][w] != 0) {
 
-			this.matrix[i][vertex.id] = null;
+				clearCell(vertex.id, (w << 6) + Long.numberOfTrailingZeros(outBits[vertex.id][w]));
+
+			}
+
+			while (inBits[vertex.id][w] != 0) {
+
+				clearCell((w << 6) + Long.numberOfTrailingZeros(inBits[vertex.id][w]), vertex.id);
+
+			}
 
 		}
 
 		this.vertexList[vertex.id] = null;
 
+		this.vertexCount--;
+
 		return (true);
 
 	}
 
 	/**
 	 * Method that returns a string of the depth first traversal of the graph.
+	 * The order comes from an iterative DepthFirstSearch.
 	 * 
 	 * @return a string representation of the depth first traversal, or an empty
 	 *         string if the graph is empty for output.
 	 */
 	public String depthFirstTraversal() {
 
-		StringBuilder strBuilder = new StringBuilder();
-
-		boolean visitedNodes[] = new boolean[MAX_NUMBER_OF_NODES];
-
-		for (int i = 0; i < MAX_NUMBER_OF_NODES; i++) {
-
-			if (this.vertexList[i] != null && visitedNodes[i] == false) {
-
-				helperRecursiveTraversal(i, visitedNodes, strBuilder);
-
-			}
-
-		}
-
-		return (strBuilder.toString());
-
-	}
-
-	/**
-	 * Private method to help with traversals.
-	 * 
-	 * @param currentNode  for input.
-	 * @param visitedNodes for input.
-	 * @param strBuilder   for input.
-	 */
-	private void helperRecursiveTraversal(int currentNode, boolean[] visitedNodes, StringBuilder strBuilder) {
-
-		visitedNodes[currentNode] = true;
-
-		strBuilder.append(strBuilder.toString().isEmpty() ? "" : " ");
-
-		strBuilder.append(currentNode);
-
-		int i = 0;
-
-		while (i < MAX_NUMBER_OF_NODES) {
-
-			if (matrix[currentNode][i] != null) {
-
-				if (!visitedNodes[i]) {
-
-					helperRecursiveTraversal(i, visitedNodes, strBuilder);
-
-				}
-
-			}
+		DepthFirstSearch dfs = new DepthFirstSearch(this);
 
-			i++;
+		dfs.run();
 
-		}
+		return (dfs.toString());
 
 	}
 
@@ -778,6 +1521,78 @@ class ThreeTenGraph implements Graph<GraphNode, GraphEdge>, DirectedGraph<GraphN
 			System.out.println("Yay 3");
 		}
 
+		graph.addEdge(edges[0], nodes[0], nodes[1]);
+
+		graph.addVertex(nodes[9]);
+
+		if (graph.removeVertex(nodes[1]) && graph.getVertexCount() == 9 && graph.getEdgeCount() == 5
+				&& graph.outDegree(nodes[0]) == 0 && graph.inDegree(nodes[8]) == 0
+				&& graph.removeEdge(edges[6]) && graph.inDegree(nodes[7]) == 1 && graph.getEdgeCount() == 4) {
+			System.out.println("Yay 4");
+		}
+
+		if (graph.getSource(edges[4]) == nodes[8] && graph.getDest(edges[4]) == nodes[9]
+				&& graph.isIncident(nodes[9], edges[4]) && !graph.isIncident(nodes[0], edges[4])
+				&& graph.removeEdge(edges[4]) && !graph.removeEdge(edges[4]) && !graph.containsEdge(edges[4])
+				&& graph.addEdge(edges[4], nodes[2], nodes[3]) && graph.addEdge(edges[4], nodes[3], nodes[2])
+				&& graph.findEdge(nodes[2], nodes[3]) == null && graph.getSource(edges[4]) == nodes[3]
+				&& graph.getEdgeCount() == 4) {
+			System.out.println("Yay 5");
+		}
+
+		ThreeTenGraph dense = new ThreeTenGraph();
+
+		GraphNode[] all = new GraphNode[MAX_NUMBER_OF_NODES];
+
+		for (int i = 0; i < all.length; i++) {
+			all[i] = new GraphNode(i);
+			dense.addVertex(all[i]);
+		}
+
+		for (int i = 0; i < all.length; i++) {
+			for (int j = 0; j < all.length; j++) {
+				if (i != j) {
+					dense.addEdge(new GraphEdge(i * MAX_NUMBER_OF_NODES + j), all[i], all[j]);
+				}
+			}
+		}
+
+		if (dense.getEdgeCount() == 39800 && dense.getSuccessors(all[7]).size() == 199
+				&& dense.getPredecessors(all[199]).size() == 199 && dense.getNeighbors(all[64]).size() == 199
+				&& dense.findEdge(all[5], all[130]).id == 5 * MAX_NUMBER_OF_NODES + 130
+				&& dense.removeVertex(all[63]) && dense.getEdgeCount() == 39402
+				&& dense.getInEdges(all[64]).size() == 198 && dense.getEdges().size() == 39402) {
+			System.out.println("Yay 6");
+		}
+
+		int[] buf = new int[4];
+
+		final int[] sum = new int[1];
+
+		dense.forEachPredecessor(10, i -> sum[0] += i);
+
+		Collection<GraphNode> successors = dense.getSuccessors(all[0]);
+
+		if (graph.successorIds(8, buf) == 0 && dense.successorIds(0, buf) == 198 && buf[3] == 4
+				&& sum[0] == 19900 - 10 - 63 && successors.size() == 198 && successors.contains(all[199])
+				&& !successors.contains(all[63]) && graph.getOutEdges(nodes[3]).contains(edges[4])) {
+			System.out.println("Yay 7");
+		}
+
+		// v1 is a predecessor of v2 when there is an edge from v1 to v2
+		if (graph.isPredecessor(nodes[3], nodes[2]) && graph.isSuccessor(nodes[2], nodes[3])
+				&& !graph.isPredecessor(nodes[2], nodes[3]) && !graph.isSuccessor(nodes[3], nodes[2])
+				&& graph.isPredecessor(nodes[3], nodes[2]) == graph.getPredecessors(nodes[2]).contains(nodes[3])) {
+			System.out.println("Yay 8");
+		}
+
+		GraphEdge impostor = new GraphEdge(edges[4].id);
+
+		if (!graph.addEdge(impostor, nodes[2], nodes[3]) && graph.findEdge(nodes[2], nodes[3]) == null
+				&& graph.containsEdge(edges[4]) && graph.findEdge(nodes[3], nodes[2]) == edges[4]) {
+			System.out.println("Yay 9");
+		}
+
 	}
 
 	/**
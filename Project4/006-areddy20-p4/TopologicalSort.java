@@ -37,6 +37,11 @@ class TopologicalSort implements ThreeTenAlg {
 	 */
 	private int maxRank;
 
+	/**
+	 * The cycle found when sorting got stuck, null until then.
+	 */
+	private LinkedList<GraphNode> cycle;
+
 	/**
 	 * The color when a node has "no color".
 	 */
@@ -82,6 +87,7 @@ class TopologicalSort implements ThreeTenAlg {
 		started = false;
 		queue = null;
 		pqueue = null;
+		cycle = null;
 	}
 
 	/**
@@ -106,6 +112,9 @@ class TopologicalSort implements ThreeTenAlg {
 		// no nodes sorted yet
 		maxRank = -1;
 
+		// no cycle found yet
+		cycle = null;
+
 		for (GraphNode v : graph.getVertices()) {
 
 			// clear rank;
@@ -184,7 +193,9 @@ class TopologicalSort implements ThreeTenAlg {
 
 	/**
 	 * Method that removes the node with the best priority from the priority queue.
-	 * Cost of node will also be checked.
+	 * Cost of node will also be checked. The first time a node with cost left is
+	 * pulled, a cycle through that node, or through a node it depends on, is
+	 * colored as well.
 	 * 
 	 * @return min node or null for output.
 	 */
@@ -204,6 +215,14 @@ class TopologicalSort implements ThreeTenAlg {
 
 			minNode.setColor(COLOR_WARNING);
 
+			if (cycle == null) {
+
+				cycle = findCycle(minNode);
+
+				highlightCycle(cycle);
+
+			}
+
 		}
 
 		else {
@@ -233,11 +252,7 @@ class TopologicalSort implements ThreeTenAlg {
 
 		if (minNode.getCost() == 0) {
 
-			GraphNode[] successors = graph.getSuccessors(minNode).toArray(new GraphNode[0]);
-
-			for (int i = 0; i < successors.length; i++) {
-
-				GraphNode successorNode = successors[i];
+			for (GraphNode successorNode : graph.getSuccessors(minNode)) {
 
 				int cost = successorNode.getCost();
 
@@ -259,6 +274,91 @@ class TopologicalSort implements ThreeTenAlg {
 
 	}
 
+	/**
+	 * Method that finds a cycle in the graph with StronglyConnectedComponents.
+	 * 
+	 * @return nodes of the cycle in edge order, the last one having an edge back
+	 *         to the first, or an empty list if there is no cycle, for output.
+	 * @throws IllegalStateException if no graph has been loaded with reset.
+	 */
+	public LinkedList<GraphNode> findCycle() {
+
+		return (findCycle(null));
+
+	}
+
+	/**
+	 * Method that finds a shortest cycle through node, or any cycle in the
+	 * graph if node is on none. Graphs that do not offer an IntGraph view are
+	 * copied into a ThreeTenCsrGraph first.
+	 * 
+	 * @param node for input, may be null.
+	 * @return nodes of the cycle in edge order, the last one having an edge back
+	 *         to the first, or an empty list if there is no cycle, for output.
+	 * @throws IllegalStateException if no graph has been loaded with reset.
+	 */
+	public LinkedList<GraphNode> findCycle(GraphNode node) {
+
+		if (graph == null) {
+
+			throw new IllegalStateException("reset must load a graph first");
+
+		}
+
+		IntGraph ints = (graph instanceof IntGraph) ? (IntGraph) graph : ThreeTenCsrGraph.copyOf(graph);
+
+		StronglyConnectedComponents scc = new StronglyConnectedComponents(ints);
+
+		scc.run();
+
+		int[] indices = (node == null) ? new int[0] : scc.cycleThrough(ints.indexOf(node));
+
+		if (indices.length == 0) {
+
+			indices = scc.cycleWitness();
+
+		}
+
+		LinkedList<GraphNode> nodes = new LinkedList<>();
+
+		for (int index : indices) {
+
+			nodes.add(ints.vertexAt(index));
+
+		}
+
+		return (nodes);
+
+	}
+
+	/**
+	 * Method that colors the nodes of cycle and the edges between them
+	 * COLOR_WARNING.
+	 * 
+	 * @param cycle for input.
+	 */
+	private void highlightCycle(LinkedList<GraphNode> cycle) {
+
+		GraphNode previous = cycle.peekLast();
+
+		for (GraphNode node : cycle) {
+
+			node.setColor(COLOR_WARNING);
+
+			GraphEdge edge = graph.findEdge(previous, node);
+
+			if (edge != null) {
+
+				edge.setColor(COLOR_WARNING);
+
+			}
+
+			previous = node;
+
+		}
+
+	}
+
 	/**
 	 * Method that finds the current min node in the priority queue and changes the
 	 * color of the node to be COLOR_HIGHLIGHT.
@@ -422,6 +522,58 @@ class TopologicalSort implements ThreeTenAlg {
 				&& nodes[2].getRank() == 3 && nodes[3].getRank() == 4 && nodes[1].getRank() == 5)
 			System.out.println("pass six edges!");
 
+		graph = new ThreeTenGraph();
+
+		for (int i = 0; i < 5; i++) {
+			graph.addVertex(nodes[i]);
+		}
+
+		graph.addEdge(edges[0], nodes[0], nodes[1]);
+		graph.addEdge(edges[1], nodes[1], nodes[2]);
+		graph.addEdge(edges[2], nodes[2], nodes[3]);
+		graph.addEdge(edges[3], nodes[3], nodes[1]);
+		graph.addEdge(edges[4], nodes[3], nodes[4]);
+
+		topSort.reset(graph);
+		while (topSort.step()) {
+		}
+
+		if (topSort.findCycle().toString().equals(java.util.Arrays.asList(nodes[1], nodes[2], nodes[3]).toString())
+				&& nodes[0].getRank() == 0 && nodes[4].getRank() == -1 && nodes[2].color.equals(COLOR_WARNING))
+			System.out.println("pass cycle!");
+
+		graph = new ThreeTenGraph();
+
+		for (int i = 0; i < 5; i++) {
+			graph.addVertex(nodes[i]);
+		}
+
+		graph.addEdge(edges[0], nodes[1], nodes[2]);
+		graph.addEdge(edges[1], nodes[2], nodes[1]);
+		graph.addEdge(edges[2], nodes[3], nodes[4]);
+		graph.addEdge(edges[3], nodes[4], nodes[3]);
+		graph.addEdge(edges[4], nodes[3], nodes[1]);
+		graph.addEdge(edges[5], nodes[4], nodes[2]);
+
+		topSort.reset(graph);
+
+		// start, sort node 0, then get stuck on node 3
+		topSort.step();
+		topSort.step();
+		topSort.step();
+
+		if (edges[2].color.equals(COLOR_WARNING) && edges[3].color.equals(COLOR_WARNING)
+				&& !edges[0].color.equals(COLOR_WARNING) && topSort.findCycle(nodes[4]).getFirst() == nodes[4]
+				&& topSort.findCycle().getFirst() == nodes[1] && topSort.findCycle(nodes[0]).size() == 2)
+			System.out.println("pass stuck node cycle!");
+
+		try {
+			new TopologicalSort().findCycle();
+		}
+		catch (IllegalStateException e) {
+			System.out.println("pass no graph!");
+		}
+
 	}
 
 }
\ No newline at end of file